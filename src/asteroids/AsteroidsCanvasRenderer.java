@@ -0,0 +1,68 @@
+package asteroids;
+
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+
+import asteroids.gui.MetricsOverlay;
+import asteroids.renderer.AbstractCanvasRenderer;
+
+/**
+ * Runs and draws a game on a canvas, showing each frame as soon as it is
+ * drawn. See {@link AbstractCanvasRenderer}.
+ */
+public class AsteroidsCanvasRenderer extends AbstractCanvasRenderer {
+
+    // The current game to render.
+    private AsteroidsGame game;
+
+    // Turns the keys pressed into the actions of each tick.
+    private final GameControls controls;
+
+    // Shows the metrics of the game, toggled with F3
+    private final MetricsOverlay metricsOverlay;
+
+    public AsteroidsCanvasRenderer(AsteroidsGame game) {
+        super(60);
+
+        this.game = game;
+
+        // Allow the game to receive keyboard input
+        setFocusable(true);
+
+        controls = new GameControls(AsteroidsRenderer.DEFAULT_ACTION_TO_KEY, this);
+
+        game.registerMetrics(getMetrics());
+        metricsOverlay = new MetricsOverlay(getMetrics());
+        metricsOverlay.bindToggleKey(this, KeyEvent.VK_F3);
+        addOverlay(metricsOverlay);
+    }
+
+    public GameControls getControls() {
+        return controls;
+    }
+
+    public MetricsOverlay getMetricsOverlay() {
+        return metricsOverlay;
+    }
+
+    @Override
+    protected void nextFrame() {
+        // Remember where everything was, so frames can be drawn in between ticks
+        game.savePreviousState();
+
+        // Apply the keys pressed up to this tick
+        game.applyInput(controls.pollActions(getTickTime()), framesPerSecond);
+
+        // Update the game state
+        game.nextFrame(this);
+
+        // Hand the new state to the painting thread
+        game.publishFrame();
+    }
+
+    @Override
+    protected void paintFrame(Graphics2D g, float alpha) {
+        // Paint all the objects in the game
+        game.paint(g, alpha);
+    }
+}
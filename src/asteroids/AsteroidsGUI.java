@@ -2,12 +2,19 @@ package asteroids;
 
 import java.awt.Color;
 import java.awt.Dimension;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import javax.swing.JFrame;
 import javax.swing.JLayeredPane;
+import javax.swing.SwingUtilities;
 
 import asteroids.gui.GameOverScreen;
 import asteroids.gui.ScoreBoard;
+import asteroids.metrics.MetricsRegistry;
+import asteroids.simulation.ReplayRecorder;
+import asteroids.utils.Log;
 
 public class AsteroidsGUI {
 
@@ -21,9 +28,38 @@ public class AsteroidsGUI {
     // The dimension of the scoreboard.
     private static final Dimension scoreBoardSize = new Dimension(WINDOW_WIDTH, 60);
 
-    // The game and renderer objects.
+    // The game and renderer objects. Only one of the renderers is used.
     private static AsteroidsGame game;
     private static AsteroidsRenderer renderer;
+    private static AsteroidsCanvasRenderer canvasRenderer;
+
+    // Whether to draw the game on a canvas instead of a Swing component,
+    // chosen with -Dasteroids.renderer=canvas
+    private static final boolean useCanvas = "canvas".equals(System.getProperty("asteroids.renderer"));
+
+    // The seed of the game, chosen with -Dasteroids.seed=<number>
+    private static final long seed = Long.getLong("asteroids.seed", System.nanoTime());
+
+    // The kind of game, chosen with -Dasteroids.mode=swarm
+    private static final GameMode mode = "swarm".equalsIgnoreCase(System.getProperty("asteroids.mode"))
+            ? GameMode.SWARM : GameMode.CLASSIC;
+
+    // The milliseconds painting a frame may take before painting uses less
+    // detail, chosen with -Dasteroids.frameBudget=<milliseconds>
+    private static final String frameBudget = System.getProperty("asteroids.frameBudget");
+
+    // The file to record the game to, chosen with -Dasteroids.record=<path>
+    private static final String recordPath = System.getProperty("asteroids.record");
+
+    // Records the game, or null
+    private static ReplayRecorder recorder;
+
+    // The file to write the metrics to every few seconds, chosen with
+    // -Dasteroids.metrics=<path>
+    private static final String metricsPath = System.getProperty("asteroids.metrics");
+
+    // The milliseconds between writing the metrics to the file
+    private static final long METRICS_DUMP_MILLIS = 10_000;
 
     /**
      * The main method creates a window for the animation to run in,
@@ -40,8 +76,28 @@ public class AsteroidsGUI {
         GameOverScreen gameOverScreen = new GameOverScreen(windowSize, scoreBoard);
 
         // Initialize the game and renderer
-        game = new AsteroidsGame(windowSize);
-        renderer = new AsteroidsRenderer(game);
+        game = new AsteroidsGame(windowSize, seed, mode);
+        if (frameBudget != null) {
+            game.getFrameBudget().setBudgetNanos((long) (Double.parseDouble(frameBudget) * 1_000_000));
+        }
+        if (useCanvas) {
+            canvasRenderer = new AsteroidsCanvasRenderer(game);
+        } else {
+            renderer = new AsteroidsRenderer(game);
+        }
+
+        // Record the game if asked
+        if (recordPath != null) {
+            startRecording(useCanvas ? canvasRenderer.getControls() : renderer.getControls(),
+                    useCanvas ? canvasRenderer.framesPerSecond : renderer.framesPerSecond);
+        }
+
+        // Write the metrics to a file if asked
+        if (metricsPath != null) {
+            MetricsRegistry metrics = useCanvas ? canvasRenderer.getMetrics() : renderer.getMetrics();
+            metrics.startDump(Path.of(metricsPath), METRICS_DUMP_MILLIS);
+            Runtime.getRuntime().addShutdownHook(new Thread(metrics::stopDump));
+        }
 
         // Configure the window
         window.setTitle("Asteroids");
@@ -65,8 +121,18 @@ public class AsteroidsGUI {
         // Update the scoreboard or show game over screen when the lives change
         game.addLivesUpdateHandler((lives) -> {
             scoreBoard.setLives(lives);
-            if (lives == 0)
+            if (lives == 0) {
+                stopRecording();
+                if (useCanvas) {
+                    // The canvas is drawn over every Swing component, so
+                    // hide it to show the game over screen
+                    SwingUtilities.invokeLater(() -> {
+                        canvasRenderer.stop();
+                        canvasRenderer.setVisible(false);
+                    });
+                }
                 gameOverScreen.open();
+            }
         });
 
         // Update the scoreboard when the score changes
@@ -78,17 +144,55 @@ public class AsteroidsGUI {
         gameOverScreen.setLocation(0, 0);
         gameOverScreen.setOpaque(false);
 
-        // Configure the renderer
-        renderer.setSize(windowSize);
-
-        // Add the components to the layered pane and the window
-        layeredPane.add(renderer, JLayeredPane.DEFAULT_LAYER);
-        layeredPane.add(scoreBoard, JLayeredPane.MODAL_LAYER);
+        // Add the components to the layered pane and the window. The canvas
+        // renderer draws the scoreboard itself.
+        if (useCanvas) {
+            canvasRenderer.setSize(windowSize);
+            canvasRenderer.addOverlay(scoreBoard);
+            layeredPane.add(canvasRenderer, JLayeredPane.DEFAULT_LAYER);
+        } else {
+            renderer.setSize(windowSize);
+            layeredPane.add(renderer, JLayeredPane.DEFAULT_LAYER);
+            layeredPane.add(scoreBoard, JLayeredPane.MODAL_LAYER);
+        }
         layeredPane.add(gameOverScreen, JLayeredPane.POPUP_LAYER);
         window.add(layeredPane);
         window.setVisible(true);
 
         // Start the game
-        renderer.start();
+        if (useCanvas) {
+            canvasRenderer.requestFocus();
+            canvasRenderer.start();
+        } else {
+            renderer.start();
+        }
+    }
+
+    /**
+     * Starts recording the game to the record path. The recording stops
+     * when the game is over or the program exits.
+     */
+    private static void startRecording(GameControls controls, int framesPerSecond) {
+        try {
+            Path path = Path.of(recordPath);
+            recorder = new ReplayRecorder(Files.newOutputStream(path), seed, mode,
+                    windowSize.width, windowSize.height, framesPerSecond);
+            controls.setRecorder(recorder);
+            Runtime.getRuntime().addShutdownHook(new Thread(AsteroidsGUI::stopRecording));
+            Log.info("Recording seed {} to {}", seed, path);
+        } catch (IOException e) {
+            Log.warn("An error occurred while starting the recording: {}", e.getMessage());
+        }
+    }
+
+    private static void stopRecording() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            Log.warn("An error occurred while saving the recording: {}", e.getMessage());
+        }
     }
 }
@@ -3,14 +3,30 @@ package asteroids;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.Random;
 
+import asteroids.AsteroidsRenderer.ActionType;
+import asteroids.collision.CollisionSystem;
+import asteroids.collision.CollisionSystem.CollisionListener;
+import asteroids.collision.SpatialHashCollisionSystem;
+import asteroids.metrics.MetricsRegistry;
 import asteroids.object.Asteroid;
+import asteroids.object.AsteroidSilhouettes;
 import asteroids.object.Bullet;
+import asteroids.object.BulletPool;
+import asteroids.object.EntityStore;
+import asteroids.object.GameObject;
 import asteroids.object.Ship;
-import asteroids.renderer.AbstractRenderer;
+import asteroids.renderer.BatchedLineRenderer;
+import asteroids.renderer.FrameBudget;
+import asteroids.renderer.FrameSnapshot;
+import asteroids.renderer.SpriteCache;
+import asteroids.renderer.TripleBuffer;
+import asteroids.simulation.SimulationContext;
+import asteroids.utils.Log;
 
 /**
  * The main game class for the Asteroids game. This class is responsible for
@@ -26,8 +42,21 @@ public class AsteroidsGame {
 
     // Game objects in the game
     public Ship ship;
-    private List<Asteroid> asteroids = new ArrayList<>();
-    private List<Bullet> bullets = new ArrayList<>();
+    private EntityStore<Asteroid> asteroids = new EntityStore<>();
+    private EntityStore<Bullet> bullets = new EntityStore<>();
+
+    // The snapshots handed from the simulation to the painting thread
+    private final TripleBuffer<FrameSnapshot> frames = new TripleBuffer<>(FrameSnapshot::new);
+
+    // The asteroid sprites, only used by the painting thread
+    private final SpriteCache sprites = new SpriteCache();
+    private volatile boolean spritesEnabled = true;
+
+    // Draws the outlines in one batch per color, only used by the painting thread
+    private final BatchedLineRenderer batch = new BatchedLineRenderer();
+
+    // Bullets that left the game, ready to be fired again
+    private final BulletPool bulletPool = new BulletPool();
 
     private int initialShipX;
     private int initialShipY;
@@ -36,7 +65,56 @@ public class AsteroidsGame {
     private int gameHeight; 
 
     private final int buffer = 50; //buffer distance beyond the area to spaw asteroids 
-    private final Random rand = new Random(); 
+
+    // The seed of the game, and the one stream of random numbers it uses.
+    // The same seed and input give the same game.
+    private final long seed;
+    private final Random rand;
+
+    // The kind of game, which sets how many asteroids there are
+    private final GameMode mode;
+
+    // Chooses the level of detail to paint with
+    private final FrameBudget frameBudget = new FrameBudget();
+
+    // The objects the last paint skipped, for being off screen
+    private volatile int culledCount = 0;
+
+    // Finds the bullets hitting asteroids
+    private CollisionSystem collisionSystem = new SpatialHashCollisionSystem();
+
+    // The objects tested against the asteroids: the bullets, then the ship.
+    // Filled again every tick.
+    private final List<GameObject> probes = new ArrayList<>();
+
+    // The number of asteroids hit during the current frame
+    private int hits;
+
+    // The asteroids the ship touched during the current frame
+    private int[] shipHits = new int[4];
+    private int shipHitCount;
+
+    // Marks an asteroid and the bullet hitting it as destroyed, or
+    // remembers the asteroid if it touched the ship. A bullet only
+    // destroys one asteroid, and an asteroid is only destroyed once.
+    private final CollisionListener bulletHitHandler = (ai, bi) -> {
+        if (bi == bullets.size()) {
+            if (shipHitCount == shipHits.length) {
+                shipHits = Arrays.copyOf(shipHits, shipHitCount * 2);
+            }
+            shipHits[shipHitCount++] = ai;
+            return;
+        }
+
+        Asteroid asteroid = asteroids.get(ai);
+        Bullet bullet = bullets.get(bi);
+
+        if (!asteroid.isDestroyed && bullet.isVisible) {
+            asteroid.isDestroyed = true;
+            bullet.isVisible = false;
+            hits++;
+        }
+    };
 
     // Handlers for score updates
     private List<Consumer<Integer>> scoreUpdateHandlers = new ArrayList<>(1);
@@ -49,6 +127,34 @@ public class AsteroidsGame {
      * key input.
      */
     public AsteroidsGame(Dimension window) {
+        this(window, System.nanoTime());
+    }
+
+    /**
+     * Constructs a game whose random numbers all come from a seed. Two
+     * games with the same seed, size and input play out the same.
+     * 
+     * @param window the size of the game
+     * @param seed   the seed of the random numbers
+     */
+    public AsteroidsGame(Dimension window, long seed) {
+        this(window, seed, GameMode.CLASSIC);
+    }
+
+    /**
+     * Constructs a game of a mode, whose random numbers all come from a
+     * seed. Two games with the same seed, mode, size and input play out
+     * the same.
+     * 
+     * @param window the size of the game
+     * @param seed   the seed of the random numbers
+     * @param mode   the kind of game
+     */
+    public AsteroidsGame(Dimension window, long seed, GameMode mode) {
+        this.seed = seed;
+        this.mode = mode;
+        this.rand = new Random(seed);
+
         this.gameWidth = window.width;
         this.gameHeight = window.height; 
     
@@ -62,16 +168,77 @@ public class AsteroidsGame {
         ship = new Ship(initialShipX, initialShipY, 0);
 
         asteroids.clear();
-        bullets.clear();
 
-        addAsteroid(2);
+        while (!bullets.isEmpty()) {
+            bulletPool.release(bullets.remove(bullets.size() - 1));
+        }
+
+        addAsteroid(mode.initialAsteroids);
+    }
+
+    /**
+     * @return the seed the random numbers of the game come from
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Applies the input of one tick. All input, from the keyboard, bots
+     * and replays, goes through here, so a recording of the masks is all
+     * it takes to play a game again.
+     * 
+     * @param actionMask      the actions to take, see {@link ActionType#mask()}
+     * @param framesPerSecond the ticks per second of the game
+     */
+    public void applyInput(int actionMask, int framesPerSecond) {
+        if ((actionMask & ActionType.THRUST.mask()) != 0) {
+            ship.enableThrust(framesPerSecond);
+        }
+        if ((actionMask & ActionType.ROTATE_LEFT.mask()) != 0) {
+            ship.rotateLeft(framesPerSecond);
+        }
+        if ((actionMask & ActionType.ROTATE_RIGHT.mask()) != 0) {
+            ship.rotateRight(framesPerSecond);
+        }
+        if ((actionMask & ActionType.HYPERSPACE.mask()) != 0) {
+            ship.enterHyperspace(framesPerSecond);
+        }
+        if ((actionMask & ActionType.SHOOT.mask()) != 0) {
+            shootBullet();
+        }
     }
 
     public void shootBullet() {
-        bullets.add(ship.shootBullet());
+        bullets.add(ship.shootBullet(bulletPool));
     }
 
-    private final int totalMaxAsteroids = 10; //uplimit of active asteroids allowed at once
+    /**
+     * Returns the pool the fired bullets are taken from. Its hit and miss
+     * counters tell how often bullets were reused.
+     * 
+     * @return the bullet pool
+     */
+    public BulletPool getBulletPool() {
+        return bulletPool;
+    }
+
+    /**
+     * Removes the bullets that are off screen or hit an asteroid, and
+     * releases them to the bullet pool.
+     */
+    private void removeDeadBullets() {
+        // Go backwards, so the bullet moved into a freed slot was already checked
+        for (int i = bullets.size() - 1; i >= 0; i--) {
+            if (!bullets.get(i).isVisible) {
+                bulletPool.release(bullets.remove(i));
+            }
+        }
+    }
 
     /**
      * Adds a specified number of asteroids to the game at random locations outside the visible gameplay area.
@@ -83,7 +250,7 @@ public class AsteroidsGame {
      */
     private void addAsteroid(int count) {
         //calculate the actual number of asteroids that can be added 
-        int availableSpace = totalMaxAsteroids - asteroids.size();
+        int availableSpace = mode.maxAsteroids - asteroids.size();
         int asteroidsToAdd = Math.min(count, availableSpace); 
 
         if (asteroidsToAdd <= 0){
@@ -116,57 +283,96 @@ public class AsteroidsGame {
             }
     
             float direction = rand.nextFloat() * 360; // random direction of movement
-            asteroids.add(new Asteroid(x, y, direction));
+            float rotation = rand.nextFloat() * 360;
+            int silhouette = rand.nextInt(AsteroidSilhouettes.COUNT);
+            asteroids.add(new Asteroid(x, y, direction, rotation, silhouette));
         }
     }
     
 
-    protected void nextFrame(AbstractRenderer r) {
-        if (lives > 0) {
-            // Move the ship
-            ship.nextFrame(r);
-
-            // Remove bullets that have gone off screen
-            bullets.removeIf(b -> b.isVisible == false);
+    /**
+     * Sets the collision system used to find bullets hitting asteroids.
+     *
+     * @param collisionSystem the collision system to use
+     */
+    public void setCollisionSystem(CollisionSystem collisionSystem) {
+        this.collisionSystem = collisionSystem;
+    }
 
-            // Move the bullets and check for collisions
+    /**
+     * Adds gauges of the game's state to a registry: the amount of
+     * asteroids and bullets, the pairs tested for collisions in the last
+     * tick, how often the bullet pool could reuse a bullet, and the level
+     * of detail and off screen objects of the last paint. The gauges
+     * are read from the thread reading the metrics, so they can be a tick
+     * behind, but the game does no extra work for them.
+     *
+     * @param metrics the registry to add the gauges to
+     */
+    public void registerMetrics(MetricsRegistry metrics) {
+        metrics.gauge("game.asteroids", () -> asteroids.size());
+        metrics.gauge("game.bullets", () -> bullets.size());
+        metrics.gauge("collision.pairs.tested", () -> collisionSystem.getPairsTested());
+        metrics.gauge("bullet.pool.hits", bulletPool::getHits);
+        metrics.gauge("bullet.pool.misses", bulletPool::getMisses);
+        metrics.gauge("render.detail.level", frameBudget::getLevel);
+        metrics.gauge("render.culled", () -> culledCount);
+    }
 
-            for (int ai = 0; ai < asteroids.size(); ai++) {
-                Asteroid asteroid = asteroids.get(ai);
+    /**
+     * Advances the game by one tick.
+     * 
+     * @param context the world the game is simulated in
+     */
+    public void nextFrame(SimulationContext context) {
+        if (lives > 0) {
+            // Move the ship
+            ship.nextFrame(context);
 
-                for (int bi = 0; bi < bullets.size(); bi++) {
-                    Bullet bullet = bullets.get(bi);
+            // Move the bullets and the asteroids
+            bullets.moveAll(context);
+            for (int i = 0; i < bullets.size(); i++) {
+                bullets.get(i).updateVisibility(context);
+            }
 
-                    if (bullet.collidesWith(asteroid)) {
-                        increaseScore(100);
+            asteroids.moveAll(context);
+            asteroids.wrapAll(context);
 
-                        // Remove the asteroid and bullet
-                        if (ai >= 0 && ai < asteroids.size()) {
-                            asteroids.remove(ai--);
-                            asteroid = null;
-                        }
-                        if (bi >= 0 && bi < bullets.size()) {
-                            bullets.remove(bi--);
-                        }
+            // Remove bullets that have gone off screen
+            removeDeadBullets();
 
-                        break;
-                    } else {
-                        bullet.nextFrame(r);
-                    }
+            // Check for bullets and the ship hitting asteroids, in one
+            // pass so only the asteroids near the ship are tested
+            probes.clear();
+            for (int i = 0; i < bullets.size(); i++) {
+                probes.add(bullets.get(i));
+            }
+            probes.add(ship);
+            hits = 0;
+            shipHitCount = 0;
+            collisionSystem.detect(asteroids, probes,
+                    context.getWorldWidth(), context.getWorldHeight(), bulletHitHandler);
+
+            // The ship is only hit by an asteroid that no bullet destroyed
+            boolean isShipHit = false;
+            for (int i = 0; i < shipHitCount; i++) {
+                if (!asteroids.get(shipHits[i]).isDestroyed) {
+                    isShipHit = true;
                 }
+            }
 
-                if (ship.collidesWith(asteroid)) {
-                    decreaseLives();
+            // Remove the asteroids and bullets that were hit
+            if (hits > 0) {
+                asteroids.removeIf(a -> a.isDestroyed);
+                removeDeadBullets();
 
-                    // Remove the asteroid
-                    if (ai >= 0 && ai < asteroids.size()) {
-                        asteroids.remove(ai--);
-                        asteroid = null;
-                    }
+                for (int i = 0; i < hits; i++) {
+                    increaseScore(100);
                 }
+            }
 
-                if (asteroid != null)
-                    asteroid.nextFrame(r);
+            if (isShipHit) {
+                decreaseLives();
             }
         } else {
             // Do nothing if the game is over
@@ -176,8 +382,8 @@ public class AsteroidsGame {
     /**
      * Increases the game score by a given amount and spawns asteroids based on the new score.
      * The number of asteroids spawned is calculated using the square root of the score divided by 100,
-     * with a maximum value predefined by the game settings. The method also ensures that the
-     * total number of asteroids does not exceed the uplimit set for the game.
+     * with a maximum value set by the game mode. addAsteroid ensures that the
+     * total number of asteroids does not exceed the uplimit of the mode.
      *
      * @param amount The amount to increase the score by. This increment can affect number of asteroids spawned.
      */
@@ -186,23 +392,12 @@ public class AsteroidsGame {
 
         int asteroidsToAdd = (int) Math.sqrt(score / 100);
 
-        // maximum number of asteroids that can be added at once
-        int maxAsteroidsToAdd = 2;  // adjust this value 
-
-        //uplimit of active asteriods allowed at once
-        int totalMaxAsteroids = 10; 
-
         // ensure do not exceed the maximum number of asteroids to add at once
-        if (asteroidsToAdd > maxAsteroidsToAdd) {
-            asteroidsToAdd = maxAsteroidsToAdd;
+        if (asteroidsToAdd > mode.maxAsteroidsPerSpawn) {
+            asteroidsToAdd = mode.maxAsteroidsPerSpawn;
         }
 
-        // ensure not to exceed the total maximum number of active asteroids
-        if (asteroids.size() + asteroidsToAdd > totalMaxAsteroids) {
-            asteroidsToAdd = totalMaxAsteroids - asteroids.size();  // reduce to fit the limit
-        }
-
-        // check if there's still room to add new asteroids
+        // addAsteroid keeps the total within the maximum of the mode
         if (asteroidsToAdd > 0) {
             addAsteroid(asteroidsToAdd);
         }
@@ -216,7 +411,7 @@ public class AsteroidsGame {
     private void decreaseLives() {
         lives--;
 
-        System.out.println("decreaseLives " + lives);
+        Log.debug("decreaseLives {}", lives);
 
         reset();
 
@@ -226,6 +421,28 @@ public class AsteroidsGame {
         }
     }
 
+    public int getScore() {
+        return score;
+    }
+
+    // The asteroids in the game, for tests and benchmarks.
+    List<Asteroid> getAsteroids() {
+        return asteroids;
+    }
+
+    // The bullets in the game, for tests and benchmarks.
+    List<Bullet> getBullets() {
+        return bullets;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public boolean isGameOver() {
+        return lives <= 0;
+    }
+
     public void addScoreUpdateHandler(Consumer<Integer> handler) {
         scoreUpdateHandlers.add(handler);
     }
@@ -234,15 +451,89 @@ public class AsteroidsGame {
         livesUpdateHandlers.add(handler);
     }
 
-    public void paint(Graphics2D g) {
-        ship.paint(g);
+    /**
+     * Remembers the current position of every object, so that frames can be
+     * drawn in between this tick and the next one. Should be called at the
+     * start of every tick, before any input is applied.
+     */
+    public void savePreviousState() {
+        ship.savePreviousState();
+        asteroids.savePreviousState();
+        bullets.savePreviousState();
+    }
 
-        for (Asteroid asteroid : asteroids) {
-            asteroid.paint(g);
+    /**
+     * Publishes the current state of every object to the painting thread.
+     * Should be called by the simulation thread at the end of every tick.
+     */
+    public void publishFrame() {
+        FrameSnapshot frame = frames.getWriteBuffer();
+        frame.clear();
+        frame.setWorldSize(gameWidth, gameHeight);
+
+        frame.add(ship);
+        for (int i = 0; i < asteroids.size(); i++) {
+            frame.add(asteroids.get(i));
         }
-
-        for (Bullet bullet : bullets) {
-            bullet.paint(g);
+        for (int i = 0; i < bullets.size(); i++) {
+            frame.add(bullets.get(i));
         }
+
+        frames.publish();
+    }
+
+    /**
+     * Chooses whether asteroids are drawn from cached sprites, or by their
+     * outline in the same batch as the other objects.
+     * 
+     * @param enabled true to draw asteroids as sprites
+     */
+    public void setSpritesEnabled(boolean enabled) {
+        spritesEnabled = enabled;
+    }
+
+    /**
+     * Returns the renderer the outlines are drawn with. Its counters tell how
+     * many draw calls and vertices the last frame took.
+     * 
+     * @return the batched line renderer
+     */
+    public BatchedLineRenderer getBatchRenderer() {
+        return batch;
+    }
+
+    /**
+     * Returns the budget that chooses the level of detail to paint with.
+     * Its budget can be changed at any time.
+     * 
+     * @return the frame budget
+     */
+    public FrameBudget getFrameBudget() {
+        return frameBudget;
+    }
+
+    public void paint(Graphics2D g) {
+        paint(g, 1);
+    }
+
+    /**
+     * Draws the most recently published frame in between its previous and
+     * its last tick. This only reads the published snapshot, never the
+     * objects themselves, so it is safe to call while the simulation runs
+     * on another thread.
+     * 
+     * <p>The time painting takes is recorded in the frame budget, which
+     * chooses the level of detail of the following frames.
+     * 
+     * @param g     the graphics context to draw on
+     * @param alpha how far to draw the objects from their previous position (0)
+     *              to their current position (1)
+     */
+    public void paint(Graphics2D g, float alpha) {
+        long start = System.nanoTime();
+        FrameSnapshot frame = frames.getReadBuffer();
+        frame.paint(g, alpha, spritesEnabled ? sprites : null, batch, frameBudget.getLevel());
+        frameBudget.record(System.nanoTime() - start);
+        culledCount = frame.getLastCulled();
     }
 }
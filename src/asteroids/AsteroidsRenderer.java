@@ -4,29 +4,48 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.event.KeyEvent;
 import java.util.Map;
-import java.util.function.Consumer;
 
+import asteroids.gui.MetricsOverlay;
+import asteroids.metrics.Histogram;
 import asteroids.renderer.AbstractRenderer;
-import asteroids.state.InputStateManager;
 
 public class AsteroidsRenderer extends AbstractRenderer {
 
     // List of supported actions for the game.
     public enum ActionType {
-        THRUST, ROTATE_LEFT, ROTATE_RIGHT, SHOOT, HYPERSPACE
+        THRUST, ROTATE_LEFT, ROTATE_RIGHT, SHOOT, HYPERSPACE;
+
+        /**
+         * @return the bit of the action in an action mask
+         */
+        public int mask() {
+            return 1 << ordinal();
+        }
     }
 
     // Keyboard mappings for the game inputs.
-    public Map<ActionType, Integer> actionToKey = Map.of(
+    static final Map<ActionType, Integer> DEFAULT_ACTION_TO_KEY = Map.of(
             ActionType.THRUST, KeyEvent.VK_UP,
             ActionType.ROTATE_LEFT, KeyEvent.VK_LEFT,
             ActionType.ROTATE_RIGHT, KeyEvent.VK_RIGHT,
             ActionType.SHOOT, KeyEvent.VK_SPACE,
             ActionType.HYPERSPACE, KeyEvent.VK_SHIFT);
 
+    // Keyboard mappings for the game inputs.
+    public Map<ActionType, Integer> actionToKey = DEFAULT_ACTION_TO_KEY;
+
     // The current game to render.
     private AsteroidsGame game;
 
+    // Turns the keys pressed into the actions of each tick.
+    private final GameControls controls;
+
+    // Shows the metrics of the game, toggled with F3
+    private final MetricsOverlay metricsOverlay;
+
+    // The nanoseconds spent painting each frame
+    private final Histogram paintNanos;
+
     public AsteroidsRenderer(AsteroidsGame game) {
         super(60);
 
@@ -35,52 +54,35 @@ public class AsteroidsRenderer extends AbstractRenderer {
         // Allow the game to receive keyboard input
         setFocusable(true);
 
-        // Handlers for actions.
-        Map<ActionType, Consumer<Void>> actionHandler = Map.of(
-                ActionType.THRUST, Void -> game.ship.enableThrust(),
-                ActionType.ROTATE_LEFT, Void -> game.ship.rotateLeft(framesPerSecond),
-                ActionType.ROTATE_RIGHT, Void -> game.ship.rotateRight(framesPerSecond),
-                ActionType.SHOOT, Void -> game.shootBullet(),
-                ActionType.HYPERSPACE, Void -> game.ship.enterHyperspace());
-
-        /*
-         * Here we initialize a input state manager and add
-         * input states according to the game actions.
-         */
-        InputStateManager.init();
-        InputStateManager.addInputState(
-            actionToKey.get(ActionType.THRUST), 
-            actionHandler.get(ActionType.THRUST), 
-            true
-        );
-        InputStateManager.addInputState(
-            actionToKey.get(ActionType.ROTATE_LEFT), 
-            actionHandler.get(ActionType.ROTATE_LEFT), 
-            true
-        );
-        InputStateManager.addInputState(
-            actionToKey.get(ActionType.ROTATE_RIGHT), 
-            actionHandler.get(ActionType.ROTATE_RIGHT), 
-            true
-        );
-        InputStateManager.addInputState(
-            actionToKey.get(ActionType.HYPERSPACE), 
-            actionHandler.get(ActionType.HYPERSPACE), 
-            false
-        );
-        InputStateManager.addInputState(
-            actionToKey.get(ActionType.SHOOT), 
-            actionHandler.get(ActionType.SHOOT), 
-            false
-        );
-        InputStateManager.bindInputListener(this);
+        controls = new GameControls(actionToKey, this);
+
+        game.registerMetrics(getMetrics());
+        paintNanos = getMetrics().histogram("frame.paint.nanos");
+        metricsOverlay = new MetricsOverlay(getMetrics());
+        metricsOverlay.bindToggleKey(this, KeyEvent.VK_F3);
+    }
+
+    public GameControls getControls() {
+        return controls;
+    }
+
+    public MetricsOverlay getMetricsOverlay() {
+        return metricsOverlay;
     }
 
     @Override
     protected void nextFrame() {
-        InputStateManager.update();
+        // Remember where everything was, so frames can be drawn in between ticks
+        game.savePreviousState();
+
+        // Apply the keys pressed up to this tick
+        game.applyInput(controls.pollActions(getTickTime()), framesPerSecond);
+
         // Update the game state
         game.nextFrame(this);
+
+        // Hand the new state to the painting thread
+        game.publishFrame();
     }
 
     @Override
@@ -88,6 +90,10 @@ public class AsteroidsRenderer extends AbstractRenderer {
         super.paintComponent(g);
 
         // Paint all the objects in the game
-        game.paint((Graphics2D) g);
+        long paintStart = System.nanoTime();
+        game.paint((Graphics2D) g, getInterpolationAlpha());
+        paintNanos.record(System.nanoTime() - paintStart);
+
+        metricsOverlay.paintOverlay((Graphics2D) g);
     }
 }
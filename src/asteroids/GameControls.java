@@ -0,0 +1,74 @@
+package asteroids;
+
+import java.awt.Component;
+import java.util.Map;
+
+import asteroids.AsteroidsRenderer.ActionType;
+import asteroids.simulation.ReplayRecorder;
+import asteroids.state.InputStateManager;
+
+/**
+ * Turns the keys pressed on a component into the action mask of each
+ * tick, which is applied with {@link AsteroidsGame#applyInput}. If a
+ * recorder is set, every mask is also recorded, so the game can be played
+ * again.
+ */
+public class GameControls {
+
+    // The actions of the tick being polled, set by the input states
+    private int actions = 0;
+
+    // Records the actions of every tick, or null
+    private ReplayRecorder recorder;
+
+    /**
+     * Binds the keys of the game actions to a component.
+     * 
+     * @param actionToKey the key of each action
+     * @param component   the component receiving the keyboard input
+     */
+    public GameControls(Map<ActionType, Integer> actionToKey, Component component) {
+        /*
+         * Here we initialize a input state manager and add
+         * input states according to the game actions.
+         */
+        InputStateManager.init();
+        addAction(ActionType.THRUST, actionToKey, true);
+        addAction(ActionType.ROTATE_LEFT, actionToKey, true);
+        addAction(ActionType.ROTATE_RIGHT, actionToKey, true);
+        addAction(ActionType.HYPERSPACE, actionToKey, false);
+        addAction(ActionType.SHOOT, actionToKey, false);
+        InputStateManager.bindInputListener(component);
+    }
+
+    private void addAction(ActionType action, Map<ActionType, Integer> actionToKey, boolean repeatable) {
+        int mask = action.mask();
+        InputStateManager.addInputState(actionToKey.get(action), Void -> actions |= mask, repeatable);
+    }
+
+    /**
+     * Sets the recorder of the actions of every tick.
+     * 
+     * @param recorder the recorder, or null to stop recording
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Applies the key events up to a tick and returns the actions to take
+     * in it. Should be called once at the start of every tick.
+     * 
+     * @param tickTimeNanos the System.nanoTime the tick stands for
+     * @return the action mask of the tick
+     */
+    public int pollActions(long tickTimeNanos) {
+        actions = 0;
+        InputStateManager.update(tickTimeNanos);
+
+        if (recorder != null) {
+            recorder.record(actions);
+        }
+        return actions;
+    }
+}
@@ -0,0 +1,34 @@
+package asteroids;
+
+/**
+ * The kinds of game that can be played. A mode sets how many asteroids
+ * there are at the start of each life, how many can be added at once when
+ * the score goes up, and how many there can be at once.
+ */
+public enum GameMode {
+    /**
+     * The original game: a few asteroids, at most 10 at once.
+     */
+    CLASSIC(2, 2, 10),
+
+    /**
+     * Thousands of asteroids. Painting keeps within its budget by drawing
+     * them with less detail, see {@link asteroids.renderer.FrameBudget}.
+     */
+    SWARM(1000, 50, 4000);
+
+    // The asteroids added at the start of each life
+    public final int initialAsteroids;
+
+    // The most asteroids added at once when the score goes up
+    public final int maxAsteroidsPerSpawn;
+
+    // The most asteroids at once
+    public final int maxAsteroids;
+
+    GameMode(int initialAsteroids, int maxAsteroidsPerSpawn, int maxAsteroids) {
+        this.initialAsteroids = initialAsteroids;
+        this.maxAsteroidsPerSpawn = maxAsteroidsPerSpawn;
+        this.maxAsteroids = maxAsteroids;
+    }
+}
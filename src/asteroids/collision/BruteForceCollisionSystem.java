@@ -0,0 +1,36 @@
+package asteroids.collision;
+
+import java.util.List;
+
+import asteroids.object.GameObject;
+
+/**
+ * Tests every probe against every target. This is O(targets x probes), but
+ * it is trivially correct, so it is kept as the reference the other
+ * collision systems are checked against.
+ */
+public class BruteForceCollisionSystem implements CollisionSystem {
+
+    // The number of pairs tested by the last detect call
+    private int pairsTested;
+
+    @Override
+    public void detect(List<? extends GameObject> targets, List<? extends GameObject> probes,
+            int width, int height, CollisionListener listener) {
+        for (int ti = 0; ti < targets.size(); ti++) {
+            GameObject target = targets.get(ti);
+
+            for (int pi = 0; pi < probes.size(); pi++) {
+                if (probes.get(pi).collidesWith(target)) {
+                    listener.onCollision(ti, pi);
+                }
+            }
+        }
+        pairsTested = targets.size() * probes.size();
+    }
+
+    @Override
+    public int getPairsTested() {
+        return pairsTested;
+    }
+}
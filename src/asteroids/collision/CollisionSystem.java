@@ -0,0 +1,53 @@
+package asteroids.collision;
+
+import java.util.List;
+
+import asteroids.object.GameObject;
+
+/**
+ * Finds the colliding pairs between two groups of game objects.
+ *
+ * <p>Implementations only decide which pairs are worth testing (the broad
+ * phase). Every candidate pair is confirmed with
+ * {@link GameObject#collidesWith(GameObject)} (the narrow phase), so all
+ * implementations report the same pairs and can be swapped freely.
+ */
+public interface CollisionSystem {
+
+    /**
+     * Receives the colliding pairs found by a collision system.
+     */
+    @FunctionalInterface
+    interface CollisionListener {
+        /**
+         * Called once for every colliding pair.
+         *
+         * @param targetIndex the index of the object in the target list
+         * @param probeIndex  the index of the object in the probe list
+         */
+        void onCollision(int targetIndex, int probeIndex);
+    }
+
+    /**
+     * Reports every pair where a probe collides with a target. The pair is
+     * tested with <code>probe.collidesWith(target)</code>.
+     *
+     * @param targets  the objects that are hit, e.g. the asteroids
+     * @param probes   the objects that hit the targets, e.g. the bullets
+     * @param width    the width of the world the objects wrap around
+     * @param height   the height of the world the objects wrap around
+     * @param listener the listener to notify of each colliding pair
+     */
+    void detect(List<? extends GameObject> targets, List<? extends GameObject> probes,
+            int width, int height, CollisionListener listener);
+
+    /**
+     * Returns how many pairs the last call to detect tested with
+     * {@link GameObject#collidesWith(GameObject)}, which tells how well the
+     * broad phase works. May be read from another thread, in which case it
+     * can be a frame behind.
+     *
+     * @return the number of pairs tested
+     */
+    int getPairsTested();
+}
@@ -0,0 +1,111 @@
+package asteroids.collision;
+
+/**
+ * Exact intersection tests between closed polygons given as vertex arrays.
+ *
+ * <p>The polygons may be concave, like the asteroids and the ship, so the
+ * test does not rely on separating axes (which only works for convex
+ * polygons). Two simple polygons intersect exactly when an edge of one
+ * crosses an edge of the other, or when one lies completely inside the
+ * other.
+ */
+public final class Polygons {
+
+    private Polygons() {
+    }
+
+    /**
+     * Tests whether two closed polygons intersect. Touching counts as
+     * intersecting.
+     * 
+     * @param ax the x coordinates of the first polygon
+     * @param ay the y coordinates of the first polygon
+     * @param an the number of vertices of the first polygon
+     * @param bx the x coordinates of the second polygon
+     * @param by the y coordinates of the second polygon
+     * @param bn the number of vertices of the second polygon
+     * @return true if the polygons intersect
+     */
+    public static boolean intersect(float[] ax, float[] ay, int an, float[] bx, float[] by, int bn) {
+        if (an == 0 || bn == 0) {
+            return false;
+        }
+
+        // Check whether any pair of edges cross
+        for (int i = 0, pi = an - 1; i < an; pi = i++) {
+            for (int j = 0, pj = bn - 1; j < bn; pj = j++) {
+                if (segmentsIntersect(ax[pi], ay[pi], ax[i], ay[i], bx[pj], by[pj], bx[j], by[j])) {
+                    return true;
+                }
+            }
+        }
+
+        // No edges cross, so either one polygon contains the other, or they
+        // are apart. A single vertex tells which.
+        return contains(bx, by, bn, ax[0], ay[0]) || contains(ax, ay, an, bx[0], by[0]);
+    }
+
+    /**
+     * Tests whether a point lies inside a closed polygon, using the even-odd
+     * rule.
+     * 
+     * @param xs the x coordinates of the polygon
+     * @param ys the y coordinates of the polygon
+     * @param n  the number of vertices of the polygon
+     * @param px the x coordinate of the point
+     * @param py the y coordinate of the point
+     * @return true if the point is inside the polygon
+     */
+    public static boolean contains(float[] xs, float[] ys, int n, float px, float py) {
+        boolean inside = false;
+
+        // Count the edges crossed by a ray from the point to the right
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if ((ys[i] > py) != (ys[j] > py)
+                    && px < (xs[j] - xs[i]) * (py - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Tests whether the segments a1-a2 and b1-b2 intersect, including when
+     * they only touch.
+     */
+    private static boolean segmentsIntersect(float a1x, float a1y, float a2x, float a2y,
+            float b1x, float b1y, float b2x, float b2y) {
+        float d1 = cross(b1x, b1y, b2x, b2y, a1x, a1y);
+        float d2 = cross(b1x, b1y, b2x, b2y, a2x, a2y);
+        float d3 = cross(a1x, a1y, a2x, a2y, b1x, b1y);
+        float d4 = cross(a1x, a1y, a2x, a2y, b2x, b2y);
+
+        // Each segment has its end points on different sides of the other
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0))
+                && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+
+        // An end point lies on the other segment
+        return (d1 == 0 && onSegment(b1x, b1y, b2x, b2y, a1x, a1y))
+                || (d2 == 0 && onSegment(b1x, b1y, b2x, b2y, a2x, a2y))
+                || (d3 == 0 && onSegment(a1x, a1y, a2x, a2y, b1x, b1y))
+                || (d4 == 0 && onSegment(a1x, a1y, a2x, a2y, b2x, b2y));
+    }
+
+    /**
+     * Returns the cross product of (p2 - p1) and (p - p1). Its sign tells on
+     * which side of the line through p1 and p2 the point p lies.
+     */
+    private static float cross(float p1x, float p1y, float p2x, float p2y, float px, float py) {
+        return (p2x - p1x) * (py - p1y) - (p2y - p1y) * (px - p1x);
+    }
+
+    /**
+     * Tests whether a point on the line through p1 and p2 lies between them.
+     */
+    private static boolean onSegment(float p1x, float p1y, float p2x, float p2y, float px, float py) {
+        return Math.min(p1x, p2x) <= px && px <= Math.max(p1x, p2x)
+                && Math.min(p1y, p2y) <= py && py <= Math.max(p1y, p2y);
+    }
+}
@@ -0,0 +1,184 @@
+package asteroids.collision;
+
+import java.util.Arrays;
+import java.util.List;
+
+import asteroids.object.GameObject;
+
+/**
+ * A collision system that uses a uniform grid as its broad phase.
+ *
+ * <p>The grid is rebuilt from the target positions on every call. Each target
+ * is linked into every cell its bounding circle covers, and each probe is
+ * only tested against the targets linked into the cells its own bounding
+ * circle covers. Cell coordinates wrap around the world edges the same way the
+ * objects do, so objects that hang over an edge still meet their neighbours
+ * on the other side.
+ *
+ * <p>The cells are stored as linked lists in flat int arrays, so rebuilding
+ * the grid does not allocate once the arrays have grown to fit.
+ */
+public class SpatialHashCollisionSystem implements CollisionSystem {
+
+    // The default cell size, roughly the diameter of the largest asteroid.
+    public static final int DEFAULT_CELL_SIZE = 80;
+
+    // The width and height of a cell, in pixels.
+    private final int cellSize;
+
+    // The number of columns and rows of the grid.
+    private int columns;
+    private int rows;
+
+    // The first entry of each cell, or -1 if the cell is empty.
+    private int[] cellHead = new int[0];
+
+    // The next entry in the same cell, or -1 at the end of the list.
+    private int[] entryNext = new int[64];
+
+    // The index of the target each entry refers to.
+    private int[] entryTarget = new int[64];
+
+    // The number of entries linked into the grid.
+    private int entryCount;
+
+    // The probe that last tested each target, so that a target covering
+    // several cells is only tested once per probe.
+    private int[] testedBy = new int[16];
+
+    // The number of pairs tested by the last detect call
+    private int pairsTested;
+
+    /**
+     * Creates a spatial hash with the default cell size.
+     */
+    public SpatialHashCollisionSystem() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a spatial hash with the specified cell size.
+     *
+     * @param cellSize the width and height of a cell. Must be greater than 0.
+     */
+    public SpatialHashCollisionSystem(int cellSize) {
+        assert cellSize > 0 : "Invalid cell size";
+        this.cellSize = cellSize;
+    }
+
+    @Override
+    public void detect(List<? extends GameObject> targets, List<? extends GameObject> probes,
+            int width, int height, CollisionListener listener) {
+        pairsTested = 0;
+        if (targets.isEmpty() || probes.isEmpty()) {
+            return;
+        }
+
+        rebuild(targets, width, height);
+
+        int tested = 0;
+        for (int pi = 0; pi < probes.size(); pi++) {
+            GameObject probe = probes.get(pi);
+
+            float probeRadius = probe.getRadius();
+            int minColumn = cellOf(probe.getX() - probeRadius);
+            int maxColumn = lastCell(minColumn, cellOf(probe.getX() + probeRadius), columns);
+            int minRow = cellOf(probe.getY() - probeRadius);
+            int maxRow = lastCell(minRow, cellOf(probe.getY() + probeRadius), rows);
+
+            for (int row = minRow; row <= maxRow; row++) {
+                int rowOffset = Math.floorMod(row, rows) * columns;
+
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    int entry = cellHead[rowOffset + Math.floorMod(column, columns)];
+
+                    for (; entry >= 0; entry = entryNext[entry]) {
+                        int ti = entryTarget[entry];
+                        if (testedBy[ti] == pi) {
+                            continue;
+                        }
+                        testedBy[ti] = pi;
+                        tested++;
+
+                        if (probe.collidesWith(targets.get(ti))) {
+                            listener.onCollision(ti, pi);
+                        }
+                    }
+                }
+            }
+        }
+        pairsTested = tested;
+    }
+
+    @Override
+    public int getPairsTested() {
+        return pairsTested;
+    }
+
+    /**
+     * Clears the grid and links every target into the cells it covers.
+     */
+    private void rebuild(List<? extends GameObject> targets, int width, int height) {
+        columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        rows = Math.max(1, (height + cellSize - 1) / cellSize);
+
+        if (cellHead.length < columns * rows) {
+            cellHead = new int[columns * rows];
+        }
+        Arrays.fill(cellHead, 0, columns * rows, -1);
+
+        if (testedBy.length < targets.size()) {
+            testedBy = new int[Math.max(targets.size(), testedBy.length * 2)];
+        }
+        Arrays.fill(testedBy, 0, targets.size(), -1);
+
+        entryCount = 0;
+
+        for (int ti = 0; ti < targets.size(); ti++) {
+            GameObject target = targets.get(ti);
+
+            float targetRadius = target.getRadius();
+            int minColumn = cellOf(target.getX() - targetRadius);
+            int maxColumn = lastCell(minColumn, cellOf(target.getX() + targetRadius), columns);
+            int minRow = cellOf(target.getY() - targetRadius);
+            int maxRow = lastCell(minRow, cellOf(target.getY() + targetRadius), rows);
+
+            for (int row = minRow; row <= maxRow; row++) {
+                int rowOffset = Math.floorMod(row, rows) * columns;
+
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    link(rowOffset + Math.floorMod(column, columns), ti);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a target to the front of a cell's list.
+     */
+    private void link(int cell, int targetIndex) {
+        if (entryCount == entryNext.length) {
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+            entryTarget = Arrays.copyOf(entryTarget, entryCount * 2);
+        }
+
+        entryTarget[entryCount] = targetIndex;
+        entryNext[entryCount] = cellHead[cell];
+        cellHead[cell] = entryCount;
+        entryCount++;
+    }
+
+    /**
+     * Returns the unwrapped cell coordinate of a world coordinate.
+     */
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * Limits a range of cells so that no cell is visited twice after wrapping.
+     */
+    private static int lastCell(int first, int last, int count) {
+        return Math.min(last, first + count - 1);
+    }
+}
@@ -13,6 +13,7 @@ import javax.swing.JLabel;
 import javax.swing.JTextField;
 
 import asteroids.utils.FileManager;
+import asteroids.utils.Log;
 
 import java.util.Timer;
 import java.util.TimerTask;
@@ -23,6 +24,11 @@ import java.util.TimerTask;
  */
 public class GameOverScreen extends JComponent {
 
+    // The fonts of the captions, the name input and the button, shared by every paint
+    private static final Font CAPTION_FONT = new Font("Monospaced", Font.PLAIN, 40);
+    private static final Font INPUT_FONT = new Font("Monospaced", Font.PLAIN, 26);
+    private static final Font BUTTON_FONT = new Font("Monospaced", Font.PLAIN, 24);
+
     public boolean isOpen = false;
     public boolean isEnterNameOpen = false;
 
@@ -36,7 +42,7 @@ public class GameOverScreen extends JComponent {
 
             // Configure text style
             g.setColor(Color.WHITE);
-            g.setFont(new Font("Monospaced", Font.PLAIN, 40));
+            g.setFont(CAPTION_FONT);
 
             // Get font metrics
             FontMetrics metrics = g.getFontMetrics();
@@ -64,7 +70,7 @@ public class GameOverScreen extends JComponent {
 
             // Configure text style
             g.setColor(Color.WHITE);
-            g.setFont(new Font("Monospaced", Font.PLAIN, 40));
+            g.setFont(CAPTION_FONT);
 
             // Get font metrics
             FontMetrics metrics = g.getFontMetrics();
@@ -114,7 +120,7 @@ public class GameOverScreen extends JComponent {
         nameInput.setBackground(this.getBackground());
         // ? Start a timer to simulate blinking cursor
         nameInput.setLocation(this.getWidth() / 2 - 180, 270);
-        nameInput.setFont(new Font("Monospaced", Font.PLAIN, 26));
+        nameInput.setFont(INPUT_FONT);
 
         confirmEnterName.setSize(80, 60);
         confirmEnterName.setLocation(this.getWidth() / 2 - 180, 340);
@@ -122,22 +128,22 @@ public class GameOverScreen extends JComponent {
         confirmEnterName.setBorderPainted(false);
         confirmEnterName.setOpaque(false);
         confirmEnterName.setForeground(Color.WHITE);
-        confirmEnterName.setFont(new Font("Monospaced", Font.PLAIN, 24));
+        confirmEnterName.setFont(BUTTON_FONT);
         confirmEnterName.setVisible(true);
         confirmEnterName.setText("OK");
         confirmEnterName.setEnabled(true);
         confirmEnterName.addActionListener(e -> {
-            String content = nameInput.getText() + " " + scoreBoardRef.getScore();
-            System.out.println("[confirmEnterName] submit content " + content);
-            FileManager.writeOrCreate(FileManager.SCORES_FILE, content);
-            System.out.println("[confirmEnterName] write to txt.");
+            String name = nameInput.getText();
+            int score = scoreBoardRef.getScore();
+            Log.info("[confirmEnterName] submit score {} {}", name, score);
+            FileManager.submitScore(name, score);
 
             this.setVisible(false);
         });
     }
 
     public void open() {
-        System.out.println("[GameOverScreen::open]");
+        Log.debug("[GameOverScreen::open]");
 
         this.isOpen = true;
         textLabel.setVisible(isOpen);
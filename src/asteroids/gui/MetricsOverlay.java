@@ -0,0 +1,150 @@
+package asteroids.gui;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.io.StringWriter;
+
+import asteroids.metrics.MetricsRegistry;
+import asteroids.renderer.Overlay;
+
+/**
+ * Shows the metrics of the game on top of it, one line per metric. Hidden
+ * until toggled, e.g. with F3.
+ *
+ * <p>Formatting the metrics allocates, so while visible the text is drawn
+ * into an image at most every {@link #REFRESH_NANOS}, and every frame in
+ * between only draws that image. While hidden nothing is formatted.
+ */
+public class MetricsOverlay implements Overlay {
+
+    // How often the shown metrics are updated
+    public static final long REFRESH_NANOS = 250_000_000L;
+
+    // The font of the text
+    private static final Font FONT = new Font("Monospaced", Font.PLAIN, 10);
+
+    // Where the text starts, below the score board
+    private static final int TEXT_X = 10;
+    private static final int TEXT_Y = 70;
+
+    // The metrics to show
+    private final MetricsRegistry metrics;
+
+    // Whether the overlay is shown
+    private volatile boolean visible = false;
+
+    // The text drawn into an image, and the version it shows. Only the
+    // painting thread uses these.
+    private BufferedImage textImage;
+    private int textImageVersion = 0;
+
+    /**
+     * Creates a hidden overlay.
+     * 
+     * @param metrics the metrics to show
+     */
+    public MetricsOverlay(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    /**
+     * Shows the overlay if it is hidden, and hides it otherwise.
+     */
+    public void toggle() {
+        visible = !visible;
+    }
+
+    /**
+     * Toggles the overlay whenever a key is pressed on a component.
+     * 
+     * @param component the component receiving the keys
+     * @param keyCode   the key, e.g. KeyEvent.VK_F3
+     */
+    public void bindToggleKey(Component component, int keyCode) {
+        component.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == keyCode) {
+                    toggle();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns 0 while hidden. While visible, returns an odd number that
+     * changes every {@link #REFRESH_NANOS}.
+     */
+    @Override
+    public int getOverlayVersion() {
+        if (!visible) {
+            return 0;
+        }
+        return (int) (System.nanoTime() / REFRESH_NANOS) * 2 + 1;
+    }
+
+    @Override
+    public void paintOverlay(Graphics2D g) {
+        int version = getOverlayVersion();
+        if (version == 0) {
+            return;
+        }
+        if (textImage == null || textImageVersion != version) {
+            textImage = createTextImage();
+            textImageVersion = version;
+        }
+        g.drawImage(textImage, TEXT_X, TEXT_Y, null);
+    }
+
+    /**
+     * @return an image with every metric drawn on a dark background
+     */
+    private BufferedImage createTextImage() {
+        StringWriter text = new StringWriter();
+        metrics.writeTo(text);
+        String[] lines = text.toString().split(System.lineSeparator());
+
+        // Measure the text to size the image
+        Graphics2D g = textImage != null ? textImage.createGraphics()
+                : new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        FontMetrics fontMetrics = g.getFontMetrics(FONT);
+        g.dispose();
+
+        int width = 1;
+        for (String line : lines) {
+            width = Math.max(width, fontMetrics.stringWidth(line));
+        }
+        int lineHeight = fontMetrics.getHeight();
+
+        BufferedImage image = new BufferedImage(width + 8, lines.length * lineHeight + 8,
+                BufferedImage.TYPE_INT_ARGB);
+        g = image.createGraphics();
+        try {
+            g.setColor(new Color(0, 0, 0, 160));
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+
+            g.setColor(Color.GREEN);
+            g.setFont(FONT);
+            for (int i = 0; i < lines.length; i++) {
+                g.drawString(lines[i], 4, 4 + i * lineHeight + fontMetrics.getAscent());
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -3,30 +3,49 @@ package asteroids.gui;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
-
-import java.util.Map;
-import java.util.HashMap;
+import java.awt.Graphics2D;
+import java.awt.FontMetrics;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 
+import asteroids.renderer.Overlay;
 import asteroids.utils.FileManager;
+import asteroids.utils.Leaderboard;
 
 /**
  * <p>The transparent score board component of the game. </p>
- * <p>TODO: read from file and sort scores, then display
- * the highest score
  * 
  * <p>Notice that all the elements were draw in one paintComponent
  * method. Since this JComponent has the size of the whole game
  * screen and only print white text in somewhere on the screen. 
+ * 
+ * <p>It is also an overlay, so a canvas renderer can draw it on top of
+ * the game.
  */
-public class ScoreBoard extends JPanel {
+public class ScoreBoard extends JPanel implements Overlay {
+
+    // The font of the text, shared by every paint
+    private static final Font FONT = new Font("Monospaced", Font.PLAIN, 20);
+
+    // Where the baseline of the text starts
+    private static final int TEXT_X = 80;
+    private static final int TEXT_Y = 40;
 
     private int score;
     private int lives;
     private int highScore;
 
-    public Map<String, Integer> nameToScore;
+    // Increased whenever the displayed text changes
+    private volatile int version;
+
+    // The text drawn into an image, and the version it shows. Only the
+    // painting thread uses these.
+    private BufferedImage textImage;
+    private int textImageVersion = -1;
+
+    // The best score of every player
+    public Leaderboard leaderboard;
 
     /**
      * Update high score display.
@@ -34,23 +53,16 @@ public class ScoreBoard extends JPanel {
      */
     public void setHighScore(int score) {
         this.highScore = score;
+        version++;
     }
 
+    /**
+     * Reads the best score of every player, without going through every
+     * score in the high score file.
+     */
     private void readHighScoreFromFile() {
-        String scores = FileManager.readFile(FileManager.SCORES_FILE);
-        String[] lines = scores.split("\n");
-        for (String line: lines) {
-            String[] nameAndScore = line.split(" ");
-            try {
-                int number = Integer.parseInt(nameAndScore[1]);
-                if (number > this.highScore) {
-                    this.highScore = number;
-                }
-                nameToScore.put(nameAndScore[0], number);
-            } catch (Exception e) {
-                System.out.println("Error during parsing a score. Skipping." + e.getMessage());
-            }
-        }
+        this.leaderboard = FileManager.getLeaderboard();
+        this.highScore = leaderboard.getHighScore();
     }
 
     public ScoreBoard() {
@@ -59,12 +71,12 @@ public class ScoreBoard extends JPanel {
         this.score = 0;
 
         this.highScore = 0;
-        this.nameToScore = new HashMap<>();
         readHighScoreFromFile();
     }
 
     public void setLives(int lives) {
         this.lives = lives;
+        version++;
     }
 
     /**
@@ -77,21 +89,73 @@ public class ScoreBoard extends JPanel {
         if (this.score > this.highScore) {
             this.highScore = score;
         }
+        version++;
     }
 
     public int getScore() {
         return this.score;
     }
 
+    @Override
+    public int getOverlayVersion() {
+        return version;
+    }
+
+    @Override
+    public void paintOverlay(Graphics2D g) {
+        paintText(g);
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        paintText(g);
+    }
 
-        // Configure text style
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("Monospaced", Font.PLAIN, 20));
+    /**
+     * Draws the text from the cached image. The image is only drawn again
+     * when the score, lives or high score have changed, so painting an
+     * unchanged board does not allocate.
+     * 
+     * @param g the graphics to draw the text on
+     */
+    private void paintText(Graphics g) {
+        int currentVersion = version;
+        if (textImage == null || textImageVersion != currentVersion) {
+            textImage = createTextImage();
+            textImageVersion = currentVersion;
+        }
+        g.drawImage(textImage, 0, 0, null);
+    }
 
-        // Draw text
-        g.drawString("Lives: " + lives + "  Score: " + score + "  High Score:" + highScore, 80, 40);
+    /**
+     * @return a transparent image with the text drawn at its place
+     */
+    private BufferedImage createTextImage() {
+        String text = "Lives: " + lives + "  Score: " + score + "  High Score:" + highScore;
+
+        // Measure the text to size the image
+        Graphics2D g = textImage != null ? textImage.createGraphics()
+                : new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        FontMetrics metrics = g.getFontMetrics(FONT);
+        g.dispose();
+
+        BufferedImage image = new BufferedImage(
+                TEXT_X + metrics.stringWidth(text) + 1,
+                TEXT_Y + metrics.getDescent() + 1,
+                BufferedImage.TYPE_INT_ARGB);
+
+        g = image.createGraphics();
+        try {
+            // Configure text style
+            g.setColor(Color.WHITE);
+            g.setFont(FONT);
+
+            // Draw text
+            g.drawString(text, TEXT_X, TEXT_Y);
+        } finally {
+            g.dispose();
+        }
+        return image;
     }
 }
@@ -0,0 +1,27 @@
+package asteroids.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that only goes up, e.g. of objects allocated or reused. Any
+ * thread may add to it, without allocating.
+ */
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * @return the count so far
+     */
+    public long get() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,126 @@
+package asteroids.metrics;
+
+/**
+ * Counts recorded values, e.g. latencies in nanoseconds, into buckets of
+ * a fixed relative width, like HdrHistogram.
+ *
+ * <p>Values below {@link #SUB_BUCKETS} each have their own bucket. Above
+ * that, every power of two is split into {@link #SUB_BUCKETS} buckets of
+ * equal width, so a bucket is never wider than 1/32 of its values, about
+ * 3%. All buckets are allocated up front, and recording is a few shifts
+ * and an array increment, so it never allocates.
+ *
+ * <p>Only one thread may record. Other threads may read at any time; they
+ * see a recent, but not necessarily consistent, state.
+ */
+public class Histogram {
+
+    // log2 of the amount of buckets per power of two
+    private static final int SUB_BUCKET_BITS = 5;
+
+    // The amount of buckets per power of two
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Enough buckets for every non-negative long
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // The amount of values recorded in each bucket
+    private final long[] counts = new long[BUCKET_COUNT];
+
+    // Totals of all recorded values
+    private volatile long count = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     * 
+     * @param value the value
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[bucketOf(value)]++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+
+        // Written last, so readers that see the count see the rest
+        count = count + 1;
+    }
+
+    /**
+     * @return the amount of values recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean of the values recorded, or 0 if there are none
+     */
+    public double getMean() {
+        long n = count;
+        return n == 0 ? 0 : (double) sum / n;
+    }
+
+    /**
+     * @return the largest value recorded, or 0 if there are none
+     */
+    public long getMax() {
+        long n = count;
+        return n == 0 ? 0 : max;
+    }
+
+    /**
+     * Returns a value that the given percentage of the recorded values are
+     * at most, to within the width of a bucket.
+     * 
+     * @param percentile the percentage, from 0 to 100
+     * @return the highest value of the bucket the percentile falls in, or 0
+     *         if there are no values
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = count;
+        if (n == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the bucket of a non-negative value
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the highest value that falls in a bucket
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,141 @@
+package asteroids.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import asteroids.utils.Log;
+
+/**
+ * The named metrics of a game: histograms of latencies, counters, and
+ * gauges that are read on demand.
+ *
+ * <p>Metrics are created once, when the game is set up, and then recorded
+ * into directly, so recording never looks anything up or allocates. Only
+ * reading them, for the overlay or a dump, formats text.
+ */
+public class MetricsRegistry {
+
+    // The metrics by name, in the order they were created
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, Counter> counters = new LinkedHashMap<>();
+    private final Map<String, LongSupplier> gauges = new LinkedHashMap<>();
+
+    // Writes the metrics to a file periodically, or null
+    private ScheduledExecutorService dumper;
+    private Path dumpFile;
+
+    /**
+     * Returns the histogram with a name, creating it if needed.
+     *
+     * @param name the name, e.g. "tick.update.nanos"
+     * @return the histogram
+     */
+    public synchronized Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    /**
+     * Returns the counter with a name, creating it if needed.
+     *
+     * @param name the name
+     * @return the counter
+     */
+    public synchronized Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /**
+     * Adds a gauge, a value that is read whenever the metrics are read.
+     * Replaces a gauge with the same name.
+     *
+     * @param name  the name
+     * @param value reads the value. Called from the thread reading the
+     *              metrics, so it should be safe to call from any thread.
+     */
+    public synchronized void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Writes every metric as one line. Histograms show their count, mean,
+     * percentiles and max in microseconds.
+     *
+     * @param writer the writer to write to. It is flushed, not closed.
+     */
+    public synchronized void writeTo(Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram h = entry.getValue();
+            out.printf("%s: n %d, mean %.1f, p50 %.1f, p99 %.1f, p99.9 %.1f, max %.1f us%n",
+                    entry.getKey(), h.getCount(), h.getMean() / 1e3,
+                    h.getValueAtPercentile(50) / 1e3, h.getValueAtPercentile(99) / 1e3,
+                    h.getValueAtPercentile(99.9) / 1e3, h.getMax() / 1e3);
+        }
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            out.printf("%s: %d%n", entry.getKey(), entry.getValue().get());
+        }
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            out.printf("%s: %d%n", entry.getKey(), entry.getValue().getAsLong());
+        }
+        out.flush();
+    }
+
+    /**
+     * Starts appending every metric to a file on a background thread,
+     * each time after a header line with the time.
+     *
+     * @param file         the file to append to
+     * @param periodMillis the milliseconds between dumps
+     */
+    public synchronized void startDump(Path file, long periodMillis) {
+        if (dumper != null) {
+            return;
+        }
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(file), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic dump, after writing the metrics one last time.
+     */
+    public synchronized void stopDump() {
+        if (dumper == null) {
+            return;
+        }
+        dumper.shutdown();
+        dumper = null;
+        dump(dumpFile);
+    }
+
+    private void dump(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (Writer writer = Files.newBufferedWriter(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write("--- " + Instant.now() + System.lineSeparator());
+                writeTo(writer);
+            }
+        } catch (IOException e) {
+            Log.warn("An error occurred while writing the metrics: {}", e.getMessage());
+        }
+    }
+}
@@ -13,6 +13,12 @@ public class Asteroid extends GameObject {
     // The speed of the asteroid.
     private float speed = 50;
 
+    // Whether the asteroid has been hit by a bullet.
+    public boolean isDestroyed = false;
+
+    // The index of the outline of the asteroid in AsteroidSilhouettes.
+    private final int silhouette;
+
     /**
      * Creates a new asteroid at the specified location with a random rotation.
      * 
@@ -24,25 +30,47 @@ public class Asteroid extends GameObject {
     }
 
     /**
-     * Creates a new asteroid at the specified location with the specified rotation.
+     * Creates a new asteroid at the specified location moving in the specified
+     * direction, with a random rotation and silhouette.
      * 
-     * @param x        the x coordinate of the asteroid
-     * @param y        the y coordinate of the asteroid
-     * @param rotation the rotation of the asteroid
+     * @param x         the x coordinate of the asteroid
+     * @param y         the y coordinate of the asteroid
+     * @param direction the direction of movement of the asteroid
      */
     public Asteroid(float x, float y, float direction) {
-        super(x, y, (float) Math.random() * 360, createAsteroidShape(), defaultColor);
+        this(x, y, direction, (float) Math.random() * 360,
+                (int) (Math.random() * AsteroidSilhouettes.COUNT));
+    }
+
+    /**
+     * Creates a new asteroid at the specified location.
+     * 
+     * @param x          the x coordinate of the asteroid
+     * @param y          the y coordinate of the asteroid
+     * @param direction  the direction of movement of the asteroid
+     * @param rotation   the rotation of the asteroid
+     * @param silhouette the index of the outline in AsteroidSilhouettes
+     */
+    public Asteroid(float x, float y, float direction, float rotation, int silhouette) {
+        super(x, y, rotation, AsteroidSilhouettes.get(silhouette), defaultColor);
+        this.silhouette = silhouette;
         setVelocity(speed, direction);
     }
 
+    @Override
+    public int getSilhouette() {
+        return silhouette;
+    }
+
     /**
-     * Creates a inconsistent irregular shape that is randomized for all asteriods 
+     * Creates a inconsistent irregular shape that is randomized for all asteriods.
+     * Used to fill {@link AsteroidSilhouettes}.
      * 
+     * @param rand the random numbers to shape the asteroid with
      * @return randomized shapes that represent the asteroids
      */
-    private static Shape createAsteroidShape() {
+    static Shape createAsteroidShape(Random rand) {
         //randomize different shapes 
-        Random rand = new Random();
 
         int numPoints = 5 + rand.nextInt(6); //random pick between 5-10 pts
 
@@ -0,0 +1,65 @@
+package asteroids.object;
+
+import java.util.Random;
+
+/**
+ * A fixed library of asteroid outlines. Every asteroid picks one of them by
+ * index, so asteroids share their outlines instead of each creating its
+ * own, and painting can prepare a sprite for each outline once.
+ */
+public final class AsteroidSilhouettes {
+
+    // The number of different asteroid outlines.
+    public static final int COUNT = 16;
+
+    // The seed the outlines are generated from, so they are the same in
+    // every run.
+    private static final long SEED = 0x5EED;
+
+    // The number of levels of detail the outlines are drawn with, from the
+    // full outline (0) to the coarsest
+    public static final int DETAIL_LEVELS = 3;
+
+    // The fewest vertices a simplified outline keeps, so it still looks
+    // like a rock
+    private static final int MIN_VERTICES = 4;
+
+    // The outlines by level of detail and index
+    private static final Outline[][] outlines = new Outline[DETAIL_LEVELS][COUNT];
+
+    static {
+        Random rand = new Random(SEED);
+        for (int i = 0; i < COUNT; i++) {
+            outlines[0][i] = new Outline(Asteroid.createAsteroidShape(rand));
+
+            // Each level keeps about half the vertices of the one before
+            for (int level = 1; level < DETAIL_LEVELS; level++) {
+                Outline full = outlines[0][i];
+                int vertices = Math.max(MIN_VERTICES, full.size() >> level);
+                outlines[level][i] = full.simplified(vertices);
+            }
+        }
+    }
+
+    private AsteroidSilhouettes() {
+    }
+
+    /**
+     * @param index the index of the outline, from 0 to COUNT - 1
+     * @return the outline
+     */
+    public static Outline get(int index) {
+        return outlines[0][index];
+    }
+
+    /**
+     * @param index the index of the outline, from 0 to COUNT - 1
+     * @param level the level of detail, from 0 (the full outline) to
+     *              DETAIL_LEVELS - 1
+     * @return the outline simplified for the level of detail. Only for
+     *         drawing; collisions always use the full outline.
+     */
+    public static Outline get(int index, int level) {
+        return outlines[level][index];
+    }
+}
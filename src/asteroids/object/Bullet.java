@@ -4,13 +4,16 @@ import java.awt.Color;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
 
-import asteroids.renderer.AbstractRenderer;
+import asteroids.simulation.SimulationContext;
 
 public class Bullet extends GameObject {
 
     // The default shape of the bullet.
     private static final Shape defaultShape = new Ellipse2D.Float(0, 0, 3, 3);
 
+    // The outline of the default shape, shared by all bullets.
+    private static final Outline defaultOutline = new Outline(defaultShape);
+
     // The default color of the bullet.
     private static final Color defaultColor = Color.RED;
 
@@ -21,15 +24,33 @@ public class Bullet extends GameObject {
     public boolean isVisible = true;
 
     public Bullet(float x, float y, float direction, float shipSpeed) {
-        super(x, y, 0, defaultShape, defaultColor); // The bullet does not rotate
+        super(x, y, 0, defaultOutline, defaultColor); // The bullet does not rotate
         setVelocity(Math.max(speed, speed + (shipSpeed / 2)), direction);
     }
 
+    /**
+     * Fires the bullet again from a new location, so that it can be reused.
+     * See {@link BulletPool}.
+     */
+    void reset(float x, float y, float direction, float shipSpeed) {
+        setPosition(x, y);
+        setVelocity(Math.max(speed, speed + (shipSpeed / 2)), direction);
+        isVisible = true;
+    }
+
     @Override
-    public void nextFrame(AbstractRenderer renderer) {
-        move(renderer);
+    public void nextFrame(SimulationContext context) {
+        move(context);
+        updateVisibility(context);
+    }
 
-        if (getX() < 0 || getX() > renderer.getWidth() || getY() < 0 || getY() > renderer.getHeight()) {
+    /**
+     * Marks the bullet as no longer visible once it leaves the world.
+     * 
+     * @param context the world the bullet is simulated in
+     */
+    public void updateVisibility(SimulationContext context) {
+        if (getX() < 0 || getX() > context.getWorldWidth() || getY() < 0 || getY() > context.getWorldHeight()) {
             isVisible = false;
         }
     }
@@ -0,0 +1,99 @@
+package asteroids.object;
+
+/**
+ * A bounded pool of bullets that are no longer in the game, so that firing
+ * reuses them instead of creating new ones.
+ *
+ * <p>Bullets are taken from the pool with {@link #acquire} and given back
+ * with {@link #release} once they are off screen or have hit something. The
+ * pool counts how often a bullet could be reused (a hit) and how often a new
+ * one had to be created (a miss). Once enough bullets are in circulation,
+ * firing does not allocate at all.
+ */
+public class BulletPool {
+
+    // The default number of bullets the pool keeps.
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // The bullets ready to be reused. Only the first `size` are valid.
+    private final Bullet[] free;
+    private int size = 0;
+
+    // The number of bullets that were reused, and that were newly created.
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates a pool with the default capacity.
+     */
+    public BulletPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pool that keeps at most the specified number of bullets.
+     * Bullets released into a full pool are left to the garbage collector.
+     * 
+     * @param capacity the most bullets to keep
+     */
+    public BulletPool(int capacity) {
+        assert capacity >= 0 : "Invalid capacity";
+        free = new Bullet[capacity];
+    }
+
+    /**
+     * Returns a bullet at the specified location, reusing a released bullet
+     * if there is one.
+     * 
+     * @param x         the x coordinate of the bullet
+     * @param y         the y coordinate of the bullet
+     * @param direction the direction of the bullet in degrees
+     * @param shipSpeed the speed of the ship firing the bullet
+     * @return the bullet
+     */
+    public Bullet acquire(float x, float y, float direction, float shipSpeed) {
+        if (size == 0) {
+            misses++;
+            return new Bullet(x, y, direction, shipSpeed);
+        }
+
+        hits++;
+        Bullet bullet = free[--size];
+        free[size] = null;
+        bullet.reset(x, y, direction, shipSpeed);
+        return bullet;
+    }
+
+    /**
+     * Gives a bullet back to the pool. The bullet must not be used again
+     * until it is returned by {@link #acquire}.
+     * 
+     * @param bullet the bullet to release
+     */
+    public void release(Bullet bullet) {
+        if (size < free.length) {
+            free[size++] = bullet;
+        }
+    }
+
+    /**
+     * @return the number of bullets ready to be reused
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of times a released bullet was reused
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of times a new bullet had to be created
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
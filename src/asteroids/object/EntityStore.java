@@ -0,0 +1,311 @@
+package asteroids.object;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import asteroids.simulation.SimulationContext;
+
+/**
+ * Stores the state of many game objects in parallel primitive arrays, one
+ * slot per object: positions, rotations, velocities and bounding radii.
+ * Velocities are kept both as speed and direction, and as x and y
+ * components per second, so moving an object takes two multiply-adds.
+ * A {@link GameObject} is a thin view over its slot.
+ *
+ * <p>Keeping the state side by side lets {@link #moveAll} and
+ * {@link #wrapAll} run straight through the arrays, instead of following a
+ * pointer to every object.
+ *
+ * <p>The store is also a list of the objects it holds. Removing an object
+ * moves the last object into its slot instead of shifting the rest, so the
+ * order of the objects changes when one is removed. Iterating and removing
+ * through an iterator (e.g. <code>removeIf</code>) still visits every object
+ * once.
+ *
+ * <p>An object that is not in a shared store keeps its state in a home, a
+ * store with a single slot of its own. Adding an object to a store moves
+ * its state there and frees its home, and removing it moves the state to
+ * a home again. Free homes are kept for reuse by each thread, so creating,
+ * adding and removing objects does not allocate once there are enough.
+ */
+public class EntityStore<T extends GameObject> extends AbstractList<T> implements RandomAccess {
+
+    // The most free homes kept for reuse by each thread.
+    private static final int MAX_FREE_HOMES = 64;
+
+    // The free homes of each thread. A home is only ever used by one object
+    // at a time, so it can be freed on one thread and reused on another.
+    private static final ThreadLocal<ArrayDeque<EntityStore<?>>> freeHomes =
+            ThreadLocal.withInitial(ArrayDeque::new);
+
+    // A slot that was never used, copied over freed homes. Nothing is ever
+    // attached to it.
+    private static final EntityStore<GameObject> EMPTY = new EntityStore<>(1);
+
+    // Whether this store is the home of a single object.
+    private final boolean home;
+
+    // The object viewing each slot.
+    private GameObject[] owners;
+
+    // The state of each slot. Only the first `size` slots are in use.
+    float[] x;
+    float[] y;
+    float[] rotation;
+    float[] previousX;
+    float[] previousY;
+    float[] previousRotation;
+    float[] speed;
+    float[] direction;
+    float[] vx;
+    float[] vy;
+    float[] radius;
+
+    // Whether the position or rotation of each slot changed since the owner
+    // last computed its world shape.
+    boolean[] dirty;
+
+    // The number of slots in use.
+    private int size = 0;
+
+    /**
+     * Creates an empty store.
+     */
+    public EntityStore() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty store with room for the specified number of objects.
+     * The store grows when more objects are added.
+     * 
+     * @param capacity the initial number of slots
+     */
+    public EntityStore(int capacity) {
+        this(capacity, false);
+    }
+
+    private EntityStore(int capacity, boolean home) {
+        this.home = home;
+        capacity = Math.max(1, capacity);
+        owners = new GameObject[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        rotation = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        previousRotation = new float[capacity];
+        speed = new float[capacity];
+        direction = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        radius = new float[capacity];
+        dirty = new boolean[capacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (T) owners[index];
+    }
+
+    /**
+     * Adds an object to the end of the store, moving its state out of the
+     * store it was in. Objects can only be added at the end.
+     */
+    @Override
+    public void add(int index, T object) {
+        if (index != size) {
+            throw new UnsupportedOperationException("Objects can only be added at the end");
+        }
+        if (object.store == this) {
+            throw new IllegalArgumentException("The object is already in this store");
+        }
+
+        EntityStore<?> from = object.store;
+        int fromSlot = object.slot;
+
+        int slot = attach(object);
+        copy(from, fromSlot, this, slot);
+        from.detach(fromSlot);
+        if (from.home) {
+            freeHome(from);
+        }
+
+        object.store = this;
+        object.slot = slot;
+        modCount++;
+    }
+
+    /**
+     * Removes the object at the specified index and moves the last object
+     * into its slot. The state of the removed object is moved to a home, so
+     * it keeps working on its own.
+     */
+    @Override
+    public T remove(int index) {
+        T object = get(index);
+
+        EntityStore<?> home = takeHome();
+        int homeSlot = home.attach(object);
+        copy(this, index, home, homeSlot);
+        detach(index);
+
+        object.store = home;
+        object.slot = homeSlot;
+        modCount++;
+        return object;
+    }
+
+    /**
+     * Removes every object from the store.
+     */
+    @Override
+    public void clear() {
+        while (size > 0) {
+            remove(size - 1);
+        }
+    }
+
+    /**
+     * Moves every object by its velocity for the duration of one tick.
+     * 
+     * @param context the world the objects are simulated in
+     */
+    public void moveAll(SimulationContext context) {
+        float dt = context.getTickDuration();
+
+        for (int i = 0; i < size; i++) {
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            dirty[i] = true;
+        }
+    }
+
+    /**
+     * Wraps every object that went off an edge of the world around to the
+     * other side.
+     * 
+     * @param context the world the objects are simulated in
+     */
+    public void wrapAll(SimulationContext context) {
+        float width = context.getWorldWidth();
+        float height = context.getWorldHeight();
+
+        for (int i = 0; i < size; i++) {
+            float dx = x[i] < 0 ? width : x[i] > width ? -width : 0;
+            float dy = y[i] < 0 ? height : y[i] > height ? -height : 0;
+
+            x[i] += dx;
+            y[i] += dy;
+            previousX[i] += dx;
+            previousY[i] += dy;
+            dirty[i] |= dx != 0 || dy != 0;
+        }
+    }
+
+    /**
+     * Remembers the current position and rotation of every object as the
+     * state of the previous tick.
+     */
+    public void savePreviousState() {
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+        System.arraycopy(rotation, 0, previousRotation, 0, size);
+    }
+
+    /**
+     * Returns a free home for an object that is not in a shared store,
+     * creating one if this thread has none.
+     * 
+     * @return an empty store with a single slot
+     */
+    static EntityStore<?> takeHome() {
+        EntityStore<?> home = freeHomes.get().poll();
+        return home != null ? home : new EntityStore<>(1, true);
+    }
+
+    /**
+     * Keeps an empty home for reuse, unless this thread already has enough.
+     * The state of the object that left is cleared, so the next object
+     * starts from the same state as in a new home.
+     */
+    private static void freeHome(EntityStore<?> home) {
+        ArrayDeque<EntityStore<?>> homes = freeHomes.get();
+        if (homes.size() < MAX_FREE_HOMES) {
+            copy(EMPTY, 0, home, 0);
+            homes.push(home);
+        }
+    }
+
+    /**
+     * Claims a new slot at the end of the store for an object.
+     * 
+     * @return the new slot
+     */
+    int attach(GameObject owner) {
+        if (size == owners.length) {
+            grow(size * 2);
+        }
+
+        owners[size] = owner;
+        return size++;
+    }
+
+    /**
+     * Frees a slot by moving the last slot into it.
+     */
+    private void detach(int slot) {
+        int last = --size;
+        if (slot != last) {
+            copy(this, last, this, slot);
+            owners[slot] = owners[last];
+            owners[slot].slot = slot;
+        }
+        owners[last] = null;
+    }
+
+    private void grow(int capacity) {
+        owners = Arrays.copyOf(owners, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        previousRotation = Arrays.copyOf(previousRotation, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        dirty = Arrays.copyOf(dirty, capacity);
+    }
+
+    /**
+     * Copies the state of one slot to another, possibly in another store.
+     */
+    private static void copy(EntityStore<?> from, int fromSlot, EntityStore<?> to, int toSlot) {
+        to.x[toSlot] = from.x[fromSlot];
+        to.y[toSlot] = from.y[fromSlot];
+        to.rotation[toSlot] = from.rotation[fromSlot];
+        to.previousX[toSlot] = from.previousX[fromSlot];
+        to.previousY[toSlot] = from.previousY[fromSlot];
+        to.previousRotation[toSlot] = from.previousRotation[fromSlot];
+        to.speed[toSlot] = from.speed[fromSlot];
+        to.direction[toSlot] = from.direction[fromSlot];
+        to.vx[toSlot] = from.vx[fromSlot];
+        to.vy[toSlot] = from.vy[fromSlot];
+        to.radius[toSlot] = from.radius[fromSlot];
+        to.dirty[toSlot] = from.dirty[fromSlot];
+    }
+}
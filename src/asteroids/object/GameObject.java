@@ -3,39 +3,61 @@ package asteroids.object;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import asteroids.renderer.AbstractRenderer;
+import asteroids.collision.Polygons;
+import asteroids.simulation.SimulationContext;
+import asteroids.utils.TrigTable;
 
 /**
  * A class representing a game object that can be drawn on the screen.
  */
 public abstract class GameObject {
 
-    private static int objectCount = 0;
+    // Counts the objects created, on every thread, to give each its own id
+    private static final AtomicInteger objectCount = new AtomicInteger();
 
-    private int objectId = objectCount++;
+    // Whether sines and cosines are read from the lookup table instead of
+    // being computed exactly. See TrigTable for the accuracy.
+    private static boolean trigTableEnabled = false;
 
-    // The x and y coordinates of the object on the renderer.
-    private float x;
-    private float y;
+    private final int objectId = objectCount.getAndIncrement();
 
-    // The visual rotation degree of the object.
-    // This only affects visual appearance of the object.
-    private float rotation;
+    // The store holding the state of the object, and the slot of the object
+    // in it. The x and y coordinates, the visual rotation, the direction and
+    // speed of movement, and the position and rotation at the end of the
+    // previous tick are all kept in the store. Until the object is added to
+    // a shared store, the store is a home of its own.
+    EntityStore<?> store;
+    int slot;
 
-    // The shape of the object.
-    private Shape shape;
+    // The outline of the object in local coordinates.
+    private Outline outline;
 
     // The color of the object.
     private Color color;
 
-    // The direction degree of the object.
-    // This affects the movement of the object.
-    private float direction = 0;
+    // The outline in world coordinates, as of the last time it was computed.
+    // These buffers are reused, so reading the shape does not allocate.
+    private float[] worldXs;
+    private float[] worldYs;
+    private final Path2D.Float worldShape = new Path2D.Float();
 
-    // The speed of the object.
-    private float speed = 0;
+    // The world bounding box of the outline.
+    private float minX;
+    private float minY;
+    private float maxX;
+    private float maxY;
+
+    // The outline the world buffers were computed from.
+    private Outline worldOutline;
+
+    // The rotation the world buffers were computed with, and its cosine and
+    // sine. Most objects never rotate, so these rarely need recomputing.
+    private float worldRotation = Float.NaN;
+    private float rotationCos;
+    private float rotationSin;
 
     /**
      * Creates a new game object.
@@ -47,11 +69,32 @@ public abstract class GameObject {
      * @param color    the color of the object
      */
     public GameObject(float x, float y, float rotation, Shape shape, Color color) {
-        this.x = x;
-        this.y = y;
-        this.rotation = rotation;
-        this.shape = shape;
+        this(x, y, rotation, new Outline(shape), color);
+    }
+
+    /**
+     * Creates a new game object with an outline that may be shared with other
+     * objects.
+     * 
+     * @param x        the x coordinate of the object
+     * @param y        the y coordinate of the object
+     * @param rotation the rotation angle of the object
+     * @param outline  the outline of the object
+     * @param color    the color of the object
+     */
+    public GameObject(float x, float y, float rotation, Outline outline, Color color) {
+        this.outline = outline;
         this.color = color;
+
+        store = EntityStore.takeHome();
+        slot = store.attach(this);
+
+        store.x[slot] = x;
+        store.y[slot] = y;
+        store.rotation[slot] = rotation;
+        store.radius[slot] = outline.getRadius();
+        store.dirty[slot] = true;
+        savePreviousState();
     }
 
     @Override
@@ -63,8 +106,33 @@ public abstract class GameObject {
         return false;
     }
 
+    /**
+     * Chooses between exact sines and cosines, and the faster lookup table,
+     * for computing velocities and rotating outlines.
+     * 
+     * @param enabled true to use the lookup table
+     */
+    public static void setTrigTableEnabled(boolean enabled) {
+        trigTableEnabled = enabled;
+    }
+
+    /**
+     * @return whether sines and cosines come from the lookup table
+     */
+    public static boolean isTrigTableEnabled() {
+        return trigTableEnabled;
+    }
+
+    private static float sin(float degrees) {
+        return trigTableEnabled ? TrigTable.sin(degrees) : (float) Math.sin(Math.toRadians(degrees));
+    }
+
+    private static float cos(float degrees) {
+        return trigTableEnabled ? TrigTable.cos(degrees) : (float) Math.cos(Math.toRadians(degrees));
+    }
+
     public void setSpeed(float speed) {
-        this.speed = speed;
+        setVelocity(speed, store.direction[slot]);
     }
 
     /**
@@ -75,8 +143,8 @@ public abstract class GameObject {
      */
     public void rotate(float da) {
         // Update the visual rotation of the object
-        this.rotation += da;
-        this.rotation %= 360;
+        store.rotation[slot] = (store.rotation[slot] + da) % 360;
+        store.dirty[slot] = true;
     }
 
     /**
@@ -87,99 +155,322 @@ public abstract class GameObject {
      *                     degrees between 0 and 360.
      */
     public void setVelocity(float newSpeed, float newDirection) {
-        this.speed = newSpeed;
-        this.direction = newDirection % 360;
+        EntityStore<?> s = store;
+        int i = slot;
+
+        s.speed[i] = newSpeed;
+        s.direction[i] = newDirection % 360;
+
+        // Direction 0 points up, and y grows downwards on the screen
+        s.vx[i] = newSpeed * sin(s.direction[i]);
+        s.vy[i] = -newSpeed * cos(s.direction[i]);
+        s.dirty[i] = true;
+    }
+
+    /**
+     * Moves the object to a new location without passing the positions in
+     * between, so it is also drawn there right away.
+     * 
+     * @param x the new x coordinate of the object
+     * @param y the new y coordinate of the object
+     */
+    protected void setPosition(float x, float y) {
+        store.x[slot] = x;
+        store.y[slot] = y;
+        store.dirty[slot] = true;
+        savePreviousState();
     }
 
     public float getRotation() {
-        return rotation;
+        return store.rotation[slot];
     }
 
     public float getSpeed() {
-        return speed;
+        return store.speed[slot];
     }
 
     public float getX() {
-        return x;
+        return store.x[slot];
     }
 
     public float getY() {
-        return y;
+        return store.y[slot];
+    }
+
+    /**
+     * @return the x coordinate at the end of the previous tick
+     */
+    public float getPreviousX() {
+        return store.previousX[slot];
     }
 
-    protected void move(AbstractRenderer renderer) {
+    /**
+     * @return the y coordinate at the end of the previous tick
+     */
+    public float getPreviousY() {
+        return store.previousY[slot];
+    }
+
+    /**
+     * @return the rotation at the end of the previous tick
+     */
+    public float getPreviousRotation() {
+        return store.previousRotation[slot];
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * Returns which of the shared asteroid outlines the object uses, so that
+     * painting can use a sprite prepared for it.
+     * 
+     * @return the index in {@link AsteroidSilhouettes}, or -1 if the object
+     *         has an outline of its own
+     */
+    public int getSilhouette() {
+        return -1;
+    }
+
+    /**
+     * @return the radius of a circle around the center of the object that
+     *         contains its outline
+     */
+    public float getRadius() {
+        return store.radius[slot];
+    }
+
+    /**
+     * Sets the radius of the bounding circle. Objects that switch between
+     * outlines should use the radius of the largest one.
+     * 
+     * @param radius the radius of a circle containing every outline
+     */
+    protected void setRadius(float radius) {
+        store.radius[slot] = radius;
+    }
+
+    protected void move(SimulationContext context) {
+        EntityStore<?> s = store;
+        int i = slot;
+
         // Move the object by its current velocity
-        x += (speed / renderer.framesPerSecond) * Math.sin(Math.toRadians(direction));
-        y -= (speed / renderer.framesPerSecond) * Math.cos(Math.toRadians(direction));
+        s.x[i] += s.vx[i] * context.getTickDuration();
+        s.y[i] += s.vy[i] * context.getTickDuration();
+        s.dirty[i] = true;
     }
 
-    protected void wrap(AbstractRenderer renderer) {
+    protected void wrap(SimulationContext context) {
+        EntityStore<?> s = store;
+        int i = slot;
+
         // Wrap the object around the screen if it goes off the right or left edge
-        if (x < 0) {
+        if (s.x[i] < 0) {
             // Object went off the left edge, move to the right
-            x += renderer.getWidth();
-        } else if (x > renderer.getWidth()) {
+            s.x[i] += context.getWorldWidth();
+            s.previousX[i] += context.getWorldWidth();
+        } else if (s.x[i] > context.getWorldWidth()) {
             // Object went off the right edge, move to the left
-            x -= renderer.getWidth();
+            s.x[i] -= context.getWorldWidth();
+            s.previousX[i] -= context.getWorldWidth();
         }
 
         // Wrap the object around the screen if it goes off the top or bottom edge
-        if (y < 0) {
+        if (s.y[i] < 0) {
             // Object went off the top edge, move to the bottom
-            y += renderer.getHeight();
-        } else if (y > renderer.getHeight()) {
+            s.y[i] += context.getWorldHeight();
+            s.previousY[i] += context.getWorldHeight();
+        } else if (s.y[i] > context.getWorldHeight()) {
             // Object went off the bottom edge, move to the top
-            y -= renderer.getHeight();
+            s.y[i] -= context.getWorldHeight();
+            s.previousY[i] -= context.getWorldHeight();
         }
+
+        s.dirty[i] = true;
+    }
+
+    /**
+     * Remembers the current position and rotation as the state of the
+     * previous tick. Should be called at the start of every tick, before
+     * the object is rotated or moved.
+     */
+    public void savePreviousState() {
+        store.previousX[slot] = store.x[slot];
+        store.previousY[slot] = store.y[slot];
+        store.previousRotation[slot] = store.rotation[slot];
     }
 
     /**
      * Updates the object's state as you want it to appear on
      * the next frame of the animation.
      */
-    public void nextFrame(AbstractRenderer renderer) {
-        move(renderer);
-        wrap(renderer);
+    public void nextFrame(SimulationContext context) {
+        move(context);
+        wrap(context);
     }
 
     /**
-     * Check whether two objects collide. This tests whether their shapes intersect.
+     * Check whether two objects collide. This tests whether their outlines
+     * intersect.
+     * 
+     * <p>Most pairs are far apart, so the bounding circles are tested first.
+     * That only takes a few float operations and does not need the world
+     * outlines, which are only computed when the circles overlap.
      * 
      * @param object the object to test
-     * @return true if the shapes intersect
+     * @return true if the outlines intersect
      */
     public boolean collidesWith(GameObject object) {
         if (object == null) {
             return false;
         }
-        // TODO: confirm whether this works correctly
-        // System.out.println(this.shape.getBounds2D() + " " +
-        // object.shape.getBounds2D());
-        return getShape().intersects(object.getShape().getBounds2D());
+
+        float dx = getX() - object.getX();
+        float dy = getY() - object.getY();
+        float reach = getRadius() + object.getRadius();
+        if (dx * dx + dy * dy > reach * reach) {
+            return false;
+        }
+
+        updateWorldShape();
+        object.updateWorldShape();
+        return Polygons.intersect(
+                worldXs, worldYs, worldOutline.size(),
+                object.worldXs, object.worldYs, object.worldOutline.size());
+    }
+
+    /**
+     * Returns the outline to draw for the object. Subclasses can override this
+     * to switch between outlines, e.g. to show a visual effect.
+     * 
+     * @return the outline in local coordinates
+     */
+    public Outline getOutline() {
+        return outline;
+    }
+
+    /**
+     * Recomputes the world vertices, bounding box and shape if the position,
+     * rotation or outline changed since they were last computed.
+     */
+    private void updateWorldShape() {
+        Outline current = getOutline();
+        if (!store.dirty[slot] && current == worldOutline) {
+            return;
+        }
+
+        float x = store.x[slot];
+        float y = store.y[slot];
+
+        int count = current.size();
+        if (worldXs == null || worldXs.length < count) {
+            worldXs = new float[count];
+            worldYs = new float[count];
+        }
+
+        float rotation = store.rotation[slot];
+        if (rotation != worldRotation) {
+            worldRotation = rotation;
+            rotationCos = cos(rotation);
+            rotationSin = sin(rotation);
+        }
+
+        // Rotate each vertex around the origin of the outline, then move
+        // it to the location of the object
+        float cos = rotationCos;
+        float sin = rotationSin;
+
+        minX = minY = Float.POSITIVE_INFINITY;
+        maxX = maxY = Float.NEGATIVE_INFINITY;
+        worldShape.reset();
+
+        for (int i = 0; i < count; i++) {
+            float lx = current.getX(i);
+            float ly = current.getY(i);
+            float wx = x + lx * cos - ly * sin;
+            float wy = y + lx * sin + ly * cos;
+
+            worldXs[i] = wx;
+            worldYs[i] = wy;
+
+            minX = Math.min(minX, wx);
+            minY = Math.min(minY, wy);
+            maxX = Math.max(maxX, wx);
+            maxY = Math.max(maxY, wy);
+
+            if (i == 0) {
+                worldShape.moveTo(wx, wy);
+            } else {
+                worldShape.lineTo(wx, wy);
+            }
+        }
+        worldShape.closePath();
+
+        worldOutline = current;
+        store.dirty[slot] = false;
     }
 
     /**
      * Returns the shape after applying the current translation
-     * and rotation
+     * and rotation. The shape is cached and reused by the object,
+     * so it must not be kept after the object moves.
      * 
      * @return the shape located as we want it to appear
      */
     public Shape getShape() {
-        // AffineTransform captures the movement and rotation we
-        // want the shape to have
-        AffineTransform at = new AffineTransform();
+        updateWorldShape();
+        return worldShape;
+    }
+
+    /**
+     * @return the number of vertices in the world outline
+     */
+    public int getVertexCount() {
+        updateWorldShape();
+        return worldOutline.size();
+    }
 
-        // x, y are where the origin of the shape will be. In this
-        // case, this is the center of the triangle. See the constructor
-        // to see where the points are.
-        at.translate(x, y);
+    /**
+     * Returns the x coordinates of the world outline. The array is reused and
+     * may be longer than the outline; see {@link #getVertexCount()}.
+     * 
+     * @return the x coordinates of the vertices
+     */
+    public float[] getWorldXs() {
+        updateWorldShape();
+        return worldXs;
+    }
+
+    /**
+     * Returns the y coordinates of the world outline. The array is reused and
+     * may be longer than the outline; see {@link #getVertexCount()}.
+     * 
+     * @return the y coordinates of the vertices
+     */
+    public float[] getWorldYs() {
+        updateWorldShape();
+        return worldYs;
+    }
+
+    public float getMinX() {
+        updateWorldShape();
+        return minX;
+    }
 
-        // Rotate the shape 45 degrees to the left
-        at.rotate(Math.toRadians(rotation));
+    public float getMinY() {
+        updateWorldShape();
+        return minY;
+    }
+
+    public float getMaxX() {
+        updateWorldShape();
+        return maxX;
+    }
 
-        // Create a shape that looks like our triangle, but centered
-        // and rotated as specified by the AffineTransform object.
-        return at.createTransformedShape(shape);
+    public float getMaxY() {
+        updateWorldShape();
+        return maxY;
     }
 
     /**
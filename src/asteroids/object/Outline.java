@@ -0,0 +1,120 @@
+package asteroids.object;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+
+/**
+ * The outline of a game object as a closed polygon in local coordinates,
+ * with the origin at the center of the object.
+ *
+ * <p>Curved shapes are flattened into line segments when the outline is
+ * created. Outlines are never modified afterwards, so the same outline can
+ * be shared by any number of objects.
+ */
+public final class Outline {
+
+    // The maximum distance between a curve and the segments replacing it.
+    private static final double FLATNESS = 0.5;
+
+    // The x and y coordinates of the vertices.
+    private final float[] xs;
+    private final float[] ys;
+
+    // The distance from the origin to the farthest vertex.
+    private final float radius;
+
+    /**
+     * Creates an outline from the first subpath of a shape.
+     *
+     * @param shape the shape in local coordinates
+     */
+    public Outline(Shape shape) {
+        float[] xs = new float[16];
+        float[] ys = new float[16];
+        int count = 0;
+
+        float[] coords = new float[6];
+        for (PathIterator it = shape.getPathIterator(null, FLATNESS); !it.isDone(); it.next()) {
+            int type = it.currentSegment(coords);
+
+            if (type == PathIterator.SEG_CLOSE || (type == PathIterator.SEG_MOVETO && count > 0)) {
+                break;
+            }
+
+            if (count == xs.length) {
+                xs = Arrays.copyOf(xs, count * 2);
+                ys = Arrays.copyOf(ys, count * 2);
+            }
+            xs[count] = coords[0];
+            ys[count] = coords[1];
+            count++;
+        }
+
+        this.xs = Arrays.copyOf(xs, count);
+        this.ys = Arrays.copyOf(ys, count);
+        this.radius = radiusOf(this.xs, this.ys);
+    }
+
+    private Outline(float[] xs, float[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.radius = radiusOf(xs, ys);
+    }
+
+    /**
+     * Returns a coarser version of the outline, made of evenly spaced
+     * vertices of this one, to draw objects with less detail.
+     *
+     * @param vertexCount the number of vertices to keep
+     * @return the coarser outline, or this outline if it has no more
+     *         vertices than asked
+     */
+    public Outline simplified(int vertexCount) {
+        if (vertexCount >= xs.length) {
+            return this;
+        }
+        float[] simplifiedXs = new float[vertexCount];
+        float[] simplifiedYs = new float[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            int vertex = i * xs.length / vertexCount;
+            simplifiedXs[i] = xs[vertex];
+            simplifiedYs[i] = ys[vertex];
+        }
+        return new Outline(simplifiedXs, simplifiedYs);
+    }
+
+    /**
+     * @return the number of vertices of the outline
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * @return the distance from the origin to the farthest vertex, so that a
+     *         circle of this radius contains the whole outline
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * @return the distance from the origin to the farthest vertex
+     */
+    private static float radiusOf(float[] xs, float[] ys) {
+        float radius = 0;
+        for (int i = 0; i < xs.length; i++) {
+            radius = Math.max(radius, (float) Math.hypot(xs[i], ys[i]));
+        }
+        return radius;
+    }
+
+    public float getX(int i) {
+        return xs[i];
+    }
+
+    public float getY(int i) {
+        return ys[i];
+    }
+}
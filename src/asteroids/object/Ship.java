@@ -1,13 +1,8 @@
 package asteroids.object;
 
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.awt.geom.AffineTransform;
 
-import javax.swing.Timer;
-
-import asteroids.renderer.AbstractRenderer;
+import asteroids.simulation.SimulationContext;
 
 public class Ship extends GameObject {
 
@@ -23,6 +18,10 @@ public class Ship extends GameObject {
             new int[] { 27, 20, -15, 20, 27, 20, 20, 35, 20, 20 },
             10);
 
+    // The outlines of the two shapes, shared by all ships.
+    private static final Outline defaultOutline = new Outline(defaultShape);
+    private static final Outline thrustOutline = new Outline(thrustShape);
+
     // The default color of the ship.
     private static final Color defaultColor = Color.white;
 
@@ -36,13 +35,19 @@ public class Ship extends GameObject {
     private final float accelerationRate = 2.0f;
     private final float decelerationRate = 0.5f;
 
-    // Timer to reset the visual effect of the thrust action.
-    // Also used to indicate if thrust is active. null if thrust is not active.
-    private Timer thrustTimer = null;
+    // How long the thrust stays on after the thrust action, in seconds.
+    private final float thrustDuration = 0.05f;
+
+    // How long the hyperspace action lasts, in seconds.
+    private final float hyperspaceDuration = 3;
 
-    // Timer to limit the duration of the hyperspace action to 3 seconds.
-    // Also used to indicate if hyperspace is active. null if hyperspace is not active.
-    private Timer hyperspaceTimer = null;
+    // The number of ticks left until the thrust turns off.
+    // Also used to indicate if thrust is active. 0 if thrust is not active.
+    private int thrustTicks = 0;
+
+    // The number of ticks left until the hyperspace action ends.
+    // Also used to indicate if hyperspace is active. 0 if hyperspace is not active.
+    private int hyperspaceTicks = 0;
 
     /**
      * Creates a new ship at specified location with specified rotation.
@@ -52,33 +57,21 @@ public class Ship extends GameObject {
      * @param rotation         the rotation of the ship
      */
     public Ship(float x, float y, float rotation) {
-        super(x, y, rotation, defaultShape, defaultColor);
+        super(x, y, rotation, defaultOutline, defaultColor);
+
+        // The ship switches to the thrust outline, so it must fit too
+        setRadius(Math.max(defaultOutline.getRadius(), thrustOutline.getRadius()));
     }
 
     /**
      * Enable the thrust action. This accelerates the ship in the direction 
      * it is facing and shows the thrust visual effect.
+     * 
+     * @param framesPerSecond the number of ticks per second
      */
-    public void enableThrust() {
-        // If the thrust is already on, cancel the timer and restart it.
-        if (thrustTimer != null)
-            thrustTimer.stop();
-
-        // Show the thrust visual effect for 50 milliseconds.
-        thrustTimer = new Timer(50, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                thrustTimer = null;
-            }
-        });
-
-        try {
-            thrustTimer.start();
-        } catch (NullPointerException e) {
-            // thrustTimer was set to null before the timer could start
-            // Start the timer again
-            enableThrust();
-        }
+    public void enableThrust(int framesPerSecond) {
+        // If the thrust is already on, this restarts its duration.
+        thrustTicks = toTicks(thrustDuration, framesPerSecond);
     }
 
     public void moveBackward() {
@@ -94,65 +87,51 @@ public class Ship extends GameObject {
     }
 
     /**
-     * Overrides the getShape() function inherited from GameObject class.
-     * Sets the shape to the defaultShape, unless the thrust/hyperspace
-     * are enabled. If thrust/hyperspace are enabled, then the shape is
-     * set to thrustShape.
+     * Overrides the getOutline() function inherited from GameObject class.
+     * Uses the default outline, unless the thrust/hyperspace are enabled.
+     * If thrust/hyperspace are enabled, then the thrust outline is used.
      */
     @Override
-    public Shape getShape() {
-        AffineTransform at = new AffineTransform();
-
-        // Move the shape to the current position
-        at.translate(getX(), getY());
-
-        // Rotate the shape to the current rotation
-        at.rotate(Math.toRadians(getRotation()));
-
-        // Set the shape to the default shape if the thrust and hyperspace is not active
-        Shape shipShape = thrustTimer == null && hyperspaceTimer == null
-                ? defaultShape
-                : thrustShape;
-
-        return at.createTransformedShape(shipShape);
+    public Outline getOutline() {
+        // Use the default outline if the thrust and hyperspace is not active
+        return thrustTicks == 0 && hyperspaceTicks == 0
+                ? defaultOutline
+                : thrustOutline;
     }
 
     /**
      * Enable the hyperspace action. This sets the ship to move at double
      * of thrust speed for 3 seconds.
+     * 
+     * @param framesPerSecond the number of ticks per second
      */
-    public void enterHyperspace() {
+    public void enterHyperspace(int framesPerSecond) {
         // Do nothing if hyperspace is already active
-        if (hyperspaceTimer != null)
+        if (hyperspaceTicks > 0)
             return;
 
         // Double the speed for 3 seconds, then return to normal speed
         setVelocity(thrustSpeed * 2, getRotation());
-        hyperspaceTimer = new Timer(3000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                hyperspaceTimer.stop();
-                hyperspaceTimer = null;
-            }
-        });
-
-        try {
-            hyperspaceTimer.start();
-        } catch (NullPointerException e) {
-            // hyperspaceTimer was set to null before the timer could start
-            // Start the timer again
-            enterHyperspace();
-        }
+        hyperspaceTicks = toTicks(hyperspaceDuration, framesPerSecond);
+    }
+
+    /**
+     * Converts a duration to a number of ticks. Any duration lasts at least
+     * one tick.
+     */
+    private static int toTicks(float seconds, int framesPerSecond) {
+        return Math.max(1, Math.round(seconds * framesPerSecond));
     }
 
     /**
      * Function to shoot a bullet from the ship. The bullet is shot in the
      * direction the ship is facing.
      *
+     * @param pool the pool to take the bullet from
      * @return the bullet object
      */
-    public Bullet shootBullet() {
-        return new Bullet(getX(), getY(), getRotation(), getSpeed());
+    public Bullet shootBullet(BulletPool pool) {
+        return pool.acquire(getX(), getY(), getRotation(), getSpeed());
     }
 
     /**
@@ -164,18 +143,18 @@ public class Ship extends GameObject {
      * If the thrust is not active, the ship decelerates with the rate of
      * `decelerationRate`. The minimum speed is limited to 0.
      * 
-     * @param renderer the renderer object
+     * @param context the simulation context
      */
     @Override
-    public void nextFrame(AbstractRenderer renderer) {
-        super.nextFrame(renderer);
+    public void nextFrame(SimulationContext context) {
+        super.nextFrame(context);
 
-        if (thrustTimer != null) {
+        if (thrustTicks > 0) {
             // If the thrust is active, accelerate the speed
 
             // Limit the top speed to the thrust speed
             float newSpeed = Math.min(
-                    (this.getSpeed() + 1) * (1 + accelerationRate / renderer.framesPerSecond),
+                    (this.getSpeed() + 1) * (1 + accelerationRate * context.getTickDuration()),
                     thrustSpeed);
 
             // Accelerate the ship in the direction it is facing
@@ -185,11 +164,17 @@ public class Ship extends GameObject {
 
             // Limit the minimum speed to 0
             float newSpeed = Math.max(
-                    this.getSpeed() * (1 - decelerationRate / renderer.framesPerSecond),
+                    this.getSpeed() * (1 - decelerationRate * context.getTickDuration()),
                     0);
 
             // Decelerate the ship in the direction of its current velocity
             this.setSpeed(newSpeed);
         }
+
+        // Count down the duration of the thrust and hyperspace actions
+        if (thrustTicks > 0)
+            thrustTicks--;
+        if (hyperspaceTicks > 0)
+            hyperspaceTicks--;
     }
 }
@@ -0,0 +1,283 @@
+package asteroids.renderer;
+
+import java.awt.AlphaComposite;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.Transparency;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import asteroids.metrics.Histogram;
+import asteroids.metrics.MetricsRegistry;
+import asteroids.simulation.SimulationContext;
+
+/**
+ * An animation on a canvas, which is drawn by the game loop itself.
+ *
+ * <p>The Swing renderer can only ask for a repaint. Swing decides when it
+ * happens, merges requests, and paints every component on top of the game
+ * again. This renderer instead draws each frame into the back buffer of a
+ * page flipping {@link BufferStrategy} and shows it right away, so a frame
+ * is on screen a known time after its tick.
+ *
+ * <p>Overlays are drawn into an image, which is only drawn again when one
+ * of them changes. The renderer measures the time between frames, the time
+ * to draw a frame, and the time to show it, and records them in its
+ * {@link #getMetrics() metrics}.
+ */
+public abstract class AbstractCanvasRenderer extends Canvas implements SimulationContext {
+
+    // The amount of buffers used for page flipping
+    private static final int BUFFER_COUNT = 2;
+
+    // Default amount of target frames per second
+    public final int framesPerSecond;
+
+    // The loop calling nextFrame and render
+    private final GameLoop loop;
+
+    // The overlays drawn on top of the game
+    private final List<Overlay> overlays = new CopyOnWriteArrayList<>();
+
+    // The overlays drawn into one image, and the sum of their versions when
+    // the image was drawn
+    private BufferedImage overlayImage;
+    private int overlayVersion;
+
+    // The time the last frame was shown
+    private long lastFrameTime = 0;
+
+    // Nanoseconds between the last two frames, spent drawing the last frame,
+    // and spent showing it
+    private volatile long frameNanos = 0;
+    private volatile long paintNanos = 0;
+    private volatile long presentNanos = 0;
+
+    // The same times of every frame
+    private final Histogram frameHistogram;
+    private final Histogram paintHistogram;
+    private final Histogram presentHistogram;
+
+    /**
+     * Creates an animation with the specified frame rate.
+     * 
+     * @param framesPerSecond the target frames per second. Must be greater than 0.
+     */
+    public AbstractCanvasRenderer(int framesPerSecond) {
+        assert framesPerSecond > 0 && framesPerSecond < 1000 : "Invalid frames per second";
+        this.framesPerSecond = framesPerSecond;
+        this.loop = new GameLoop(framesPerSecond, new GameLoop.Frame() {
+            @Override
+            public void nextFrame() {
+                AbstractCanvasRenderer.this.nextFrame();
+            }
+
+            @Override
+            public void render(float alpha) {
+                AbstractCanvasRenderer.this.render(alpha);
+            }
+        }, new MetricsRegistry());
+        this.frameHistogram = loop.getMetrics().histogram("frame.interval.nanos");
+        this.paintHistogram = loop.getMetrics().histogram("frame.paint.nanos");
+        this.presentHistogram = loop.getMetrics().histogram("frame.present.nanos");
+
+        // The frames are drawn by the loop, not by the AWT
+        setIgnoreRepaint(true);
+        setBackground(Color.BLACK);
+    }
+
+    /**
+     * Update the state of the renderer to represent the next frame.
+     */
+    protected abstract void nextFrame();
+
+    /**
+     * Draws the game. The buffer has been cleared to the background color.
+     * 
+     * @param g     the graphics of the back buffer
+     * @param alpha the interpolation alpha, see {@link #getInterpolationAlpha()}
+     */
+    protected abstract void paintFrame(Graphics2D g, float alpha);
+
+    /**
+     * Adds an overlay to draw on top of the game.
+     * 
+     * @param overlay the overlay
+     */
+    public void addOverlay(Overlay overlay) {
+        overlays.add(overlay);
+        overlayImage = null;
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+
+        // The buffers can only be created once the canvas is displayable
+        createBufferStrategy(BUFFER_COUNT);
+    }
+
+    @Override
+    public int getWorldWidth() {
+        return getWidth();
+    }
+
+    @Override
+    public int getWorldHeight() {
+        return getHeight();
+    }
+
+    @Override
+    public float getTickDuration() {
+        return 1f / framesPerSecond;
+    }
+
+    /**
+     * @return the interpolation alpha, from 0 (previous tick) to 1 (last tick)
+     */
+    public float getInterpolationAlpha() {
+        return loop.getInterpolationAlpha();
+    }
+
+    /**
+     * @return the nanoseconds between the last two frames shown
+     */
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+
+    /**
+     * @return the nanoseconds spent drawing the last frame
+     */
+    public long getPaintNanos() {
+        return paintNanos;
+    }
+
+    /**
+     * @return the nanoseconds spent showing the last frame
+     */
+    public long getPresentNanos() {
+        return presentNanos;
+    }
+
+    /**
+     * @return the registry the renderer and its game loop record metrics into
+     */
+    public MetricsRegistry getMetrics() {
+        return loop.getMetrics();
+    }
+
+    /**
+     * @return the System.nanoTime the tick being run stands for, see
+     *         {@link GameLoop#getTickTime()}
+     */
+    protected long getTickTime() {
+        return loop.getTickTime();
+    }
+
+    /**
+     * Starts the renderer thread.
+     */
+    public void start() {
+        loop.start();
+    }
+
+    /**
+     * Stops the renderer thread.
+     */
+    public void stop() {
+        loop.stop();
+    }
+
+    /**
+     * Draws a frame into the back buffer and shows it.
+     * 
+     * @param alpha the interpolation alpha
+     */
+    private void render(float alpha) {
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null || !isShowing()) {
+            return;
+        }
+
+        long paintStart = System.nanoTime();
+        long presentStart;
+        do {
+            // Draw the frame again if the buffer was lost while drawing it
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    g.setColor(getBackground());
+                    g.fillRect(0, 0, getWidth(), getHeight());
+                    paintFrame(g, alpha);
+                    paintOverlays(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+
+            presentStart = System.nanoTime();
+            strategy.show();
+
+            // Make sure the frame is sent to the screen now
+            Toolkit.getDefaultToolkit().sync();
+        } while (strategy.contentsLost());
+
+        long now = System.nanoTime();
+        paintNanos = presentStart - paintStart;
+        presentNanos = now - presentStart;
+        paintHistogram.record(paintNanos);
+        presentHistogram.record(presentNanos);
+        if (lastFrameTime != 0) {
+            frameNanos = now - lastFrameTime;
+            frameHistogram.record(frameNanos);
+        }
+        lastFrameTime = now;
+    }
+
+    /**
+     * Composites the overlays, drawing their image again if one of them
+     * has changed.
+     * 
+     * @param g the graphics of the back buffer
+     */
+    private void paintOverlays(Graphics2D g) {
+        if (overlays.isEmpty()) {
+            return;
+        }
+
+        int version = 0;
+        for (Overlay overlay : overlays) {
+            version = 31 * version + overlay.getOverlayVersion();
+        }
+
+        BufferedImage image = overlayImage;
+        if (image == null || image.getWidth() != getWidth() || image.getHeight() != getHeight()) {
+            image = getGraphicsConfiguration().createCompatibleImage(
+                    Math.max(1, getWidth()), Math.max(1, getHeight()), Transparency.TRANSLUCENT);
+            overlayImage = image;
+            overlayVersion = version + 1;
+        }
+
+        if (version != overlayVersion) {
+            Graphics2D overlayGraphics = image.createGraphics();
+            try {
+                overlayGraphics.setComposite(AlphaComposite.Clear);
+                overlayGraphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+                overlayGraphics.setComposite(AlphaComposite.SrcOver);
+                for (Overlay overlay : overlays) {
+                    overlay.paintOverlay(overlayGraphics);
+                }
+            } finally {
+                overlayGraphics.dispose();
+            }
+            overlayVersion = version;
+        }
+
+        g.drawImage(image, 0, 0, null);
+    }
+}
@@ -2,23 +2,27 @@ package asteroids.renderer;
 
 import javax.swing.JComponent;
 
+import asteroids.metrics.MetricsRegistry;
+import asteroids.simulation.SimulationContext;
+
 /**
  * An abstract class for rendering the game. This class provides the basic
  * functionality to run an animation. Subclasses should define the nextFrame
  * method. This method is called 30 times per second (or another specified)
  * updating and drawing the latest state of the game.
  *
+ * <p>The renderer runs a fixed timestep {@link GameLoop}: nextFrame keeps
+ * its rate even when painting takes long, and after every round of ticks
+ * the component is repainted. Painting can use the interpolation alpha to
+ * draw objects between their last two positions.
  */
-public abstract class AbstractRenderer extends JComponent implements Runnable {
+public abstract class AbstractRenderer extends JComponent implements Runnable, SimulationContext {
 
     // Default amount of target frames per second
     public final int framesPerSecond;
 
-    // Amount of milliseconds to pause between frames
-    private final int pauseTime;
-
-    // The thread in which the rendering is done
-    private Thread rendererThread;
+    // The loop calling nextFrame and repaint
+    private final GameLoop loop;
 
     /**
      * Creates an animation with the default frame rate of 30 frames per second.
@@ -35,7 +39,17 @@ public abstract class AbstractRenderer extends JComponent implements Runnable {
     public AbstractRenderer(int framesPerSecond) {
         assert framesPerSecond > 0 && framesPerSecond < 1000 : "Invalid frames per second";
         this.framesPerSecond = framesPerSecond;
-        this.pauseTime = 1000 / framesPerSecond;
+        this.loop = new GameLoop(framesPerSecond, new GameLoop.Frame() {
+            @Override
+            public void nextFrame() {
+                AbstractRenderer.this.nextFrame();
+            }
+
+            @Override
+            public void render(float alpha) {
+                repaint();
+            }
+        }, new MetricsRegistry());
     }
 
     /**
@@ -43,23 +57,59 @@ public abstract class AbstractRenderer extends JComponent implements Runnable {
      */
     protected abstract void nextFrame();
 
+    @Override
+    public int getWorldWidth() {
+        return getWidth();
+    }
+
+    @Override
+    public int getWorldHeight() {
+        return getHeight();
+    }
+
+    @Override
+    public float getTickDuration() {
+        return 1f / framesPerSecond;
+    }
+
+    /**
+     * Returns how far the current time is between the last tick and the next
+     * one. Objects should be drawn this far between their previous and their
+     * current position.
+     * 
+     * @return the interpolation alpha, from 0 (previous tick) to 1 (last tick)
+     */
+    public float getInterpolationAlpha() {
+        return loop.getInterpolationAlpha();
+    }
+
+    /**
+     * @return the registry the renderer and its game loop record metrics into
+     */
+    public MetricsRegistry getMetrics() {
+        return loop.getMetrics();
+    }
+
+    /**
+     * @return the System.nanoTime the tick being run stands for, see
+     *         {@link GameLoop#getTickTime()}
+     */
+    protected long getTickTime() {
+        return loop.getTickTime();
+    }
+
     /**
      * Starts the renderer thread.
      */
     public void start() {
-        if (rendererThread == null) {
-            rendererThread = new Thread(this);
-            rendererThread.start();
-        }
+        loop.start();
     }
 
     /**
      * Stops the renderer thread.
      */
     public void stop() {
-        if (rendererThread != null) {
-            rendererThread = null;
-        }
+        loop.stop();
     }
 
     /**
@@ -67,17 +117,7 @@ public abstract class AbstractRenderer extends JComponent implements Runnable {
      * to start the renderer, call the start() method.
      */
     public void run() {
-        // Update the display periodically.
-        try {
-            while (Thread.currentThread() == rendererThread) {
-                nextFrame();
-                repaint();
-
-                Thread.sleep(pauseTime);
-            }
-        } catch (InterruptedException e) {
-            // Stop the animation if interrupted.
-        }
+        loop.run();
     }
 
 }
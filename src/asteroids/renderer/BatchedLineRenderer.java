@@ -0,0 +1,117 @@
+package asteroids.renderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+
+/**
+ * Collects the outlines drawn during a frame into one path per color, and
+ * draws each path with a single call at the end of the frame.
+ *
+ * <p>Every call to <code>Graphics2D.draw</code> goes through the whole
+ * Java2D pipeline, so with hundreds of objects the per-call overhead is
+ * larger than the cost of the lines. The paths are reused between frames,
+ * so collecting the outlines does not allocate once they have grown.
+ *
+ * <p>The renderer also counts the draw calls and vertices of each frame.
+ * Only the painting thread may use it; the counters of the last finished
+ * frame can be read from any thread.
+ */
+public class BatchedLineRenderer {
+
+    // The colors used this frame, and the path collecting each color's
+    // outlines. Only the first `colorCount` are in use.
+    private Color[] colors = new Color[4];
+    private Path2D.Float[] paths = new Path2D.Float[4];
+    private int colorCount = 0;
+
+    // The counters of the frame being drawn.
+    private int drawCalls = 0;
+    private int vertices = 0;
+
+    // The counters of the last finished frame.
+    private volatile int lastDrawCalls = 0;
+    private volatile int lastVertices = 0;
+
+    /**
+     * Returns the path collecting the outlines of a color for this frame.
+     * Outlines are added with moveTo, lineTo and closePath, and counted
+     * with {@link #countVertices}.
+     * 
+     * @param color the color to draw the outlines in
+     * @return the path for the color
+     */
+    public Path2D.Float pathFor(Color color) {
+        // There are only a few colors, so a linear search is fastest
+        for (int i = 0; i < colorCount; i++) {
+            if (colors[i].equals(color)) {
+                return paths[i];
+            }
+        }
+
+        if (colorCount == colors.length) {
+            colors = Arrays.copyOf(colors, colorCount * 2);
+            paths = Arrays.copyOf(paths, colorCount * 2);
+        }
+        if (paths[colorCount] == null) {
+            paths[colorCount] = new Path2D.Float();
+        }
+
+        colors[colorCount] = color;
+        return paths[colorCount++];
+    }
+
+    /**
+     * Counts vertices added to a path this frame.
+     * 
+     * @param count the number of vertices
+     */
+    public void countVertices(int count) {
+        vertices += count;
+    }
+
+    /**
+     * Counts a draw call that did not go through a path, e.g. a sprite.
+     */
+    public void countDrawCall() {
+        drawCalls++;
+    }
+
+    /**
+     * Draws every collected path with one call per color, and starts the
+     * next frame.
+     * 
+     * @param g the graphics context to draw on
+     */
+    public void flush(Graphics2D g) {
+        for (int i = 0; i < colorCount; i++) {
+            g.setColor(colors[i]);
+            g.draw(paths[i]);
+            drawCalls++;
+
+            paths[i].reset();
+            colors[i] = null;
+        }
+        colorCount = 0;
+
+        lastDrawCalls = drawCalls;
+        lastVertices = vertices;
+        drawCalls = 0;
+        vertices = 0;
+    }
+
+    /**
+     * @return the number of draw calls of the last frame
+     */
+    public int getDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    /**
+     * @return the number of outline vertices drawn in the last frame
+     */
+    public int getVertices() {
+        return lastVertices;
+    }
+}
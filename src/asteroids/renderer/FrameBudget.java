@@ -0,0 +1,119 @@
+package asteroids.renderer;
+
+import asteroids.object.AsteroidSilhouettes;
+
+/**
+ * Chooses the level of detail frames are painted with, so that painting
+ * stays within a time budget however many objects there are.
+ *
+ * <p>The painting thread records how long each frame took, and the frames
+ * are judged in windows of {@link #WINDOW_FRAMES}. When most frames of a
+ * window were over the budget the level goes up, which draws asteroids
+ * with simpler outlines in one batch instead of a sprite each. When nearly
+ * all were well under the budget it goes back down. So a single slow
+ * frame, e.g. from a garbage collection, does not change the level, and
+ * the detail does not flicker between two levels.
+ *
+ * <p>Only painting adapts. The simulation is the same at every level, so
+ * a seeded game plays out the same however fast the machine is.
+ */
+public class FrameBudget {
+
+    // The highest level, drawing with the least detail
+    public static final int MAX_LEVEL = AsteroidSilhouettes.DETAIL_LEVELS - 1;
+
+    // The default budget for painting a frame, half a frame at 60 frames
+    // per second
+    public static final long DEFAULT_BUDGET_NANOS = 8_000_000L;
+
+    // The number of frames judged together
+    public static final int WINDOW_FRAMES = 30;
+
+    // How much of each new frame time goes into the average
+    private static final double SMOOTHING = 1.0 / 8;
+
+    // The time painting a frame may take
+    private volatile long budgetNanos;
+
+    // The average time painting a frame took
+    private double averageNanos = 0;
+
+    // The current level, from 0 (full detail) to MAX_LEVEL
+    private volatile int level = 0;
+
+    // The frames of the current window, and how many of them were over
+    // the budget and under half of it
+    private int windowFrames = 0;
+    private int overBudget = 0;
+    private int underHalfBudget = 0;
+
+    /**
+     * Creates a budget of {@link #DEFAULT_BUDGET_NANOS}.
+     */
+    public FrameBudget() {
+        this(DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * @param budgetNanos the nanoseconds painting a frame may take
+     */
+    public FrameBudget(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * @return the level of detail to paint with, from 0 (full detail) to
+     *         MAX_LEVEL
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @return the average nanoseconds painting a frame took
+     */
+    public long getAverageNanos() {
+        return (long) averageNanos;
+    }
+
+    /**
+     * Records how long painting a frame took, and changes the level at the
+     * end of a window if the window was out of the budget. Only the
+     * painting thread may call this.
+     *
+     * @param frameNanos the nanoseconds painting the frame took
+     */
+    public void record(long frameNanos) {
+        averageNanos = averageNanos == 0 ? frameNanos
+                : averageNanos + (frameNanos - averageNanos) * SMOOTHING;
+
+        long budget = budgetNanos;
+        if (frameNanos > budget) {
+            overBudget++;
+        } else if (frameNanos < budget / 2) {
+            underHalfBudget++;
+        }
+
+        windowFrames++;
+        if (windowFrames < WINDOW_FRAMES) {
+            return;
+        }
+
+        if (overBudget > WINDOW_FRAMES / 2 && level < MAX_LEVEL) {
+            level++;
+        } else if (underHalfBudget >= WINDOW_FRAMES * 9 / 10 && level > 0) {
+            level--;
+        }
+        windowFrames = 0;
+        overBudget = 0;
+        underHalfBudget = 0;
+    }
+}
@@ -0,0 +1,224 @@
+package asteroids.renderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+
+import asteroids.object.AsteroidSilhouettes;
+import asteroids.object.GameObject;
+import asteroids.object.Outline;
+import asteroids.utils.TrigTable;
+
+/**
+ * What every object looked like at the end of one tick: its outline, color,
+ * position and rotation, and its position and rotation one tick before.
+ *
+ * <p>The simulation fills a snapshot after every tick and hands it to the
+ * painting thread through a {@link TripleBuffer}, so painting never reads
+ * the objects while the simulation changes them. Outlines and colors are
+ * never modified, so the snapshot can share them. The arrays are reused, so
+ * filling and painting a snapshot does not allocate once they are big
+ * enough.
+ *
+ * <p>Objects entirely outside the area being painted are skipped: the clip
+ * of the graphics, or the world when there is no clip. Painting can also
+ * be asked for less detail, see {@link FrameBudget}.
+ */
+public class FrameSnapshot {
+
+    // The number of objects in the snapshot.
+    private int size = 0;
+
+    // The outline and color of each object.
+    private Outline[] outlines = new Outline[64];
+    private Color[] colors = new Color[64];
+
+    // The asteroid silhouette of each object, or -1 if it has none.
+    private int[] silhouettes = new int[64];
+
+    // The position and rotation of each object at the end of the tick, and
+    // at the end of the tick before.
+    private float[] x = new float[64];
+    private float[] y = new float[64];
+    private float[] rotation = new float[64];
+    private float[] previousX = new float[64];
+    private float[] previousY = new float[64];
+    private float[] previousRotation = new float[64];
+
+    // The size of the world, painted when the graphics have no clip. 0
+    // while unknown.
+    private int worldWidth = 0;
+    private int worldHeight = 0;
+
+    // The area being painted, reused by every paint.
+    private final Rectangle view = new Rectangle();
+
+    // The number of objects skipped by the last paint, for being outside
+    // the area painted.
+    private int lastCulled = 0;
+
+    /**
+     * Removes every object from the snapshot.
+     */
+    public void clear() {
+        // Let go of the outlines, so removed asteroids can be collected
+        Arrays.fill(outlines, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Sets the size of the world, the area painted when the graphics have
+     * no clip, such as those of a buffer strategy or an image.
+     * 
+     * @param width  the width of the world
+     * @param height the height of the world
+     */
+    public void setWorldSize(int width, int height) {
+        worldWidth = width;
+        worldHeight = height;
+    }
+
+    /**
+     * Adds the current state of an object to the snapshot.
+     * 
+     * @param object the object to add
+     */
+    public void add(GameObject object) {
+        if (size == x.length) {
+            grow(size * 2);
+        }
+
+        outlines[size] = object.getOutline();
+        colors[size] = object.getColor();
+        silhouettes[size] = object.getSilhouette();
+        x[size] = object.getX();
+        y[size] = object.getY();
+        rotation[size] = object.getRotation();
+        previousX[size] = object.getPreviousX();
+        previousY[size] = object.getPreviousY();
+        previousRotation[size] = object.getPreviousRotation();
+        size++;
+    }
+
+    /**
+     * @return the number of objects in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of objects the last paint skipped, for being
+     *         outside the area painted
+     */
+    public int getLastCulled() {
+        return lastCulled;
+    }
+
+    /**
+     * Draws every object in full detail, see
+     * {@link #paint(Graphics2D, float, SpriteCache, BatchedLineRenderer, int)}.
+     */
+    public void paint(Graphics2D g, float alpha, SpriteCache sprites, BatchedLineRenderer batch) {
+        paint(g, alpha, sprites, batch, 0);
+    }
+
+    /**
+     * Draws every object in between its previous and its current position.
+     * Objects with a silhouette are drawn as sprites if there are sprites,
+     * the others are collected by outline and drawn in one batch per color.
+     * Objects outside the clip of the graphics, or outside the world if
+     * there is no clip, are skipped.
+     * 
+     * <p>Above level 0, silhouettes are always drawn by their outline,
+     * simplified for the level, so that all of them are drawn in one batch
+     * instead of with one image copy each.
+     * 
+     * @param g       the graphics context to draw on
+     * @param alpha   how far to draw the objects from their previous position
+     *                (0) to their current position (1)
+     * @param sprites the sprites of the silhouettes, or null to draw every
+     *                object by its outline
+     * @param batch   the renderer collecting the outlines
+     * @param level   the level of detail, from 0 (full detail) to
+     *                {@link FrameBudget#MAX_LEVEL}
+     */
+    public void paint(Graphics2D g, float alpha, SpriteCache sprites, BatchedLineRenderer batch, int level) {
+        // getClipBounds leaves the rectangle alone when there is no clip
+        view.width = -1;
+        g.getClipBounds(view);
+        if (view.width < 0) {
+            if (worldWidth > 0 && worldHeight > 0) {
+                view.setBounds(0, 0, worldWidth, worldHeight);
+            } else {
+                view.setBounds(Integer.MIN_VALUE / 2, Integer.MIN_VALUE / 2, Integer.MAX_VALUE, Integer.MAX_VALUE);
+            }
+        }
+
+        int culled = 0;
+        for (int i = 0; i < size; i++) {
+            float drawX = previousX[i] + (x[i] - previousX[i]) * alpha;
+            float drawY = previousY[i] + (y[i] - previousY[i]) * alpha;
+
+            // Skip objects that are entirely outside, leaving room for the
+            // width of the line
+            float reach = outlines[i].getRadius() + 1;
+            if (drawX + reach < view.x || drawX - reach > view.x + view.width
+                    || drawY + reach < view.y || drawY - reach > view.y + view.height) {
+                culled++;
+                continue;
+            }
+
+            // Take the shorter way around when the rotation crossed 0 or 360
+            float turn = rotation[i] - previousRotation[i];
+            turn -= 360 * Math.round(turn / 360);
+            float drawRotation = previousRotation[i] + turn * alpha;
+
+            if (silhouettes[i] >= 0 && sprites != null && level == 0
+                    && sprites.draw(g, silhouettes[i], colors[i], drawX, drawY, drawRotation)) {
+                batch.countDrawCall();
+                continue;
+            }
+
+            // The lookup table is far more accurate than a pixel here
+            float cos = TrigTable.cos(drawRotation);
+            float sin = TrigTable.sin(drawRotation);
+
+            Outline outline = silhouettes[i] >= 0 && level > 0
+                    ? AsteroidSilhouettes.get(silhouettes[i], level)
+                    : outlines[i];
+            Path2D.Float path = batch.pathFor(colors[i]);
+            for (int v = 0; v < outline.size(); v++) {
+                float lx = outline.getX(v);
+                float ly = outline.getY(v);
+                float wx = drawX + lx * cos - ly * sin;
+                float wy = drawY + lx * sin + ly * cos;
+
+                if (v == 0) {
+                    path.moveTo(wx, wy);
+                } else {
+                    path.lineTo(wx, wy);
+                }
+            }
+            path.closePath();
+            batch.countVertices(outline.size());
+        }
+
+        batch.flush(g);
+        lastCulled = culled;
+    }
+
+    private void grow(int capacity) {
+        outlines = Arrays.copyOf(outlines, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        silhouettes = Arrays.copyOf(silhouettes, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        previousRotation = Arrays.copyOf(previousRotation, capacity);
+    }
+}
@@ -0,0 +1,282 @@
+package asteroids.renderer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import asteroids.metrics.Counter;
+import asteroids.metrics.Histogram;
+import asteroids.metrics.MetricsRegistry;
+
+/**
+ * A fixed timestep game loop, running on its own thread.
+ *
+ * <p>The time passed since the last frame is added to an accumulator, and
+ * the simulation is advanced once for every full tick in it. So the
+ * simulation keeps its rate even when a frame takes long, or the thread
+ * sleeps longer than asked. After a stall at most
+ * {@link #MAX_CATCH_UP_TICKS} ticks are run and the rest of the time is
+ * dropped, so the loop does not spend every following frame catching up.
+ *
+ * <p>Rendering has its own rate, by default {@link #DEFAULT_RENDERS_PER_SECOND}
+ * and never below the tick rate. The loop sleeps until the next tick or the
+ * next render is due, whichever comes first, and renders when a render is
+ * due. The leftover fraction of a tick is passed to the render step as the
+ * interpolation alpha, which painting can use to draw objects between their
+ * last two positions. As renders fall at different points between ticks,
+ * the alpha varies from frame to frame and motion stays smooth.
+ *
+ * <p>The loop records into its {@link MetricsRegistry} how long each tick
+ * and each render step takes, how late each tick runs compared to the time
+ * it stands for, how many ticks are dropped, and how many bytes the loop
+ * thread has allocated.
+ */
+public class GameLoop implements Runnable {
+
+    /**
+     * The two steps of a frame of the loop.
+     */
+    public interface Frame {
+        /**
+         * Advances the simulation by one tick.
+         */
+        void nextFrame();
+
+        /**
+         * Renders the current state.
+         * 
+         * @param alpha how far the current time is between the last tick (1)
+         *              and the one before it (0)
+         */
+        void render(float alpha);
+    }
+
+    // The most ticks run to catch up after a stall, before dropping time
+    public static final int MAX_CATCH_UP_TICKS = 5;
+
+    // The renders per second when none is given
+    public static final int DEFAULT_RENDERS_PER_SECOND = 120;
+
+    // Amount of nanoseconds of one simulation tick
+    private final long tickNanos;
+
+    // Amount of nanoseconds between two renders
+    private final long renderIntervalNanos;
+
+    // The steps run by the loop
+    private final Frame frame;
+
+    // How far the time is between the last tick and the next one, from 0 to 1
+    private volatile float interpolationAlpha = 0;
+
+    // The System.nanoTime the tick being run stands for
+    private volatile long tickTime = 0;
+
+    // The time of the last pass, the time passed that no tick has run for
+    // yet, and the time the next render is due. Only used by the loop thread.
+    private long previousTime;
+    private long accumulator;
+    private long nextRender;
+
+    // The thread in which the loop runs
+    private volatile Thread loopThread;
+
+    // The metrics of the loop
+    private final MetricsRegistry metrics;
+    private final Histogram updateNanos;
+    private final Histogram renderNanos;
+    private final Histogram jitterNanos;
+    private final Counter droppedTicks;
+
+    /**
+     * Creates a game loop.
+     * 
+     * @param framesPerSecond the number of ticks per second. Must be greater than 0.
+     * @param frame           the steps to run
+     */
+    public GameLoop(int framesPerSecond, Frame frame) {
+        this(framesPerSecond, frame, new MetricsRegistry());
+    }
+
+    /**
+     * Creates a game loop that records its metrics into a registry.
+     * 
+     * @param framesPerSecond the number of ticks per second. Must be greater than 0.
+     * @param frame           the steps to run
+     * @param metrics         the registry to record into
+     */
+    public GameLoop(int framesPerSecond, Frame frame, MetricsRegistry metrics) {
+        this(framesPerSecond, Math.max(framesPerSecond, DEFAULT_RENDERS_PER_SECOND), frame, metrics);
+    }
+
+    /**
+     * Creates a game loop that renders at its own rate.
+     * 
+     * @param framesPerSecond  the number of ticks per second. Must be greater than 0.
+     * @param rendersPerSecond the number of renders per second. Must not be
+     *                         less than the ticks per second.
+     * @param frame            the steps to run
+     * @param metrics          the registry to record into
+     */
+    public GameLoop(int framesPerSecond, int rendersPerSecond, Frame frame, MetricsRegistry metrics) {
+        assert framesPerSecond > 0 && framesPerSecond < 1000 : "Invalid frames per second";
+        assert rendersPerSecond >= framesPerSecond && rendersPerSecond < 1000 : "Invalid renders per second";
+        this.tickNanos = 1_000_000_000L / framesPerSecond;
+        this.renderIntervalNanos = 1_000_000_000L / rendersPerSecond;
+        this.frame = frame;
+        this.metrics = metrics;
+        this.updateNanos = metrics.histogram("tick.update.nanos");
+        this.renderNanos = metrics.histogram("frame.render.nanos");
+        this.jitterNanos = metrics.histogram("tick.jitter.nanos");
+        this.droppedTicks = metrics.counter("tick.dropped");
+    }
+
+    /**
+     * @return the registry the loop records its metrics into
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the nanoseconds between two renders
+     */
+    public long getRenderIntervalNanos() {
+        return renderIntervalNanos;
+    }
+
+    /**
+     * @return the interpolation alpha of the last render step
+     */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+
+    /**
+     * Returns the time the tick being run stands for. When the loop catches
+     * up after a stall, it runs several ticks at once, each standing for a
+     * different time. Input that happened after this time belongs to a
+     * later tick.
+     * 
+     * @return the System.nanoTime of the end of the tick being run
+     */
+    public long getTickTime() {
+        return tickTime;
+    }
+
+    /**
+     * Starts the loop thread.
+     */
+    public void start() {
+        if (loopThread == null) {
+            loopThread = new Thread(this);
+            loopThread.start();
+        }
+    }
+
+    /**
+     * Stops the loop thread after its current frame.
+     */
+    public void stop() {
+        loopThread = null;
+    }
+
+    /**
+     * Runs the loop. This method should not be called directly. Instead,
+     * to start the loop, call the start() method.
+     */
+    public void run() {
+        registerAllocationGauge(Thread.currentThread().getId());
+        begin(System.nanoTime());
+
+        try {
+            while (Thread.currentThread() == loopThread) {
+                long now = System.nanoTime();
+                long untilDue = step(now);
+
+                // Sleep until the next tick or the next render is due
+                long sleepNanos = untilDue - (System.nanoTime() - now);
+                if (sleepNanos > 0) {
+                    Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stop the loop if interrupted.
+        }
+    }
+
+    /**
+     * Starts counting time for the loop, with the first render due right
+     * away.
+     * 
+     * @param now the System.nanoTime the loop starts at
+     */
+    void begin(long now) {
+        previousTime = now;
+        accumulator = 0;
+        nextRender = now;
+    }
+
+    /**
+     * Runs one pass of the loop: the ticks due by now, then a render if one
+     * is due. Only the loop thread calls this, except in tests, which pass
+     * their own times.
+     * 
+     * @param now the System.nanoTime of this pass
+     * @return the nanoseconds from now until the next tick or render is due
+     */
+    long step(long now) {
+        accumulator += now - previousTime;
+        previousTime = now;
+
+        // Run a tick for every full tick of time that passed
+        int ticks = 0;
+        while (accumulator >= tickNanos && ticks < MAX_CATCH_UP_TICKS) {
+            tickTime = now - accumulator + tickNanos;
+            long updateStart = System.nanoTime();
+            jitterNanos.record(updateStart - tickTime);
+            frame.nextFrame();
+            updateNanos.record(System.nanoTime() - updateStart);
+            accumulator -= tickNanos;
+            ticks++;
+        }
+
+        // If we are too far behind, drop the time we cannot catch up on.
+        // Otherwise every frame would be spent catching up.
+        if (accumulator >= tickNanos) {
+            droppedTicks.add(accumulator / tickNanos);
+            accumulator %= tickNanos;
+        }
+
+        if (now - nextRender >= 0) {
+            interpolationAlpha = (float) accumulator / tickNanos;
+            long renderStart = System.nanoTime();
+            frame.render(interpolationAlpha);
+            renderNanos.record(System.nanoTime() - renderStart);
+
+            // After falling behind, render on time from now on
+            // instead of rendering the missed frames in a burst
+            nextRender += renderIntervalNanos;
+            if (nextRender - now <= 0) {
+                nextRender = now + renderIntervalNanos;
+            }
+        }
+
+        return Math.min(tickNanos - accumulator, nextRender - now);
+    }
+
+    /**
+     * Adds a gauge of the bytes allocated by the loop thread, if the JVM
+     * can measure them.
+     * 
+     * @param threadId the id of the loop thread
+     */
+    private void registerAllocationGauge(long threadId) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+            if (allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled()) {
+                metrics.gauge("loop.allocated.bytes", () -> allocations.getThreadAllocatedBytes(threadId));
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package asteroids.renderer;
+
+import java.awt.Graphics2D;
+
+/**
+ * Something drawn on top of the game by a canvas renderer, like the score
+ * board.
+ *
+ * <p>Overlays change far less often than the game, so the renderer draws
+ * them into an image once and composites that image every frame. Each time
+ * its contents change an overlay increases its version, and the image is
+ * drawn again on the next frame.
+ */
+public interface Overlay {
+
+    /**
+     * Returns a number that changes whenever the contents of the overlay
+     * change. May be called from any thread.
+     * 
+     * @return the version of the overlay
+     */
+    int getOverlayVersion();
+
+    /**
+     * Draws the overlay onto a transparent image the size of the renderer.
+     * 
+     * @param g the graphics of the image
+     */
+    void paintOverlay(Graphics2D g);
+}
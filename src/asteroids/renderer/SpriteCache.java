@@ -0,0 +1,104 @@
+package asteroids.renderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+
+import asteroids.object.AsteroidSilhouettes;
+import asteroids.object.Outline;
+
+/**
+ * Pre-rendered images of the asteroid silhouettes, at a fixed number of
+ * rotation steps. Drawing an asteroid is then a single image copy instead
+ * of rasterizing its outline on every frame.
+ *
+ * <p>Each sprite is rendered the first time it is needed, in the color it
+ * was first asked for, as an image compatible with the screen so that Java2D
+ * can keep it in video memory. Sprites are only used for that color; see
+ * {@link #draw}. Only the painting thread may use the cache.
+ */
+public class SpriteCache {
+
+    // The number of rotation steps in a full turn. Must be a power of 2.
+    public static final int ROTATION_STEPS = 32;
+
+    // The sprites by silhouette and rotation step, null until needed.
+    private final BufferedImage[][] sprites = new BufferedImage[AsteroidSilhouettes.COUNT][ROTATION_STEPS];
+
+    // The color the sprites of each silhouette were rendered in.
+    private final Color[] colors = new Color[AsteroidSilhouettes.COUNT];
+
+    /**
+     * Draws a silhouette centered on a location, rotated to the nearest
+     * rotation step.
+     * 
+     * @param g          the graphics context to draw on
+     * @param silhouette the index of the silhouette
+     * @param color      the color to draw in
+     * @param x          the x coordinate of the center
+     * @param y          the y coordinate of the center
+     * @param rotation   the rotation in degrees
+     * @return false if there is no sprite for this color, and the caller has
+     *         to draw the outline itself
+     */
+    public boolean draw(Graphics2D g, int silhouette, Color color, float x, float y, float rotation) {
+        if (colors[silhouette] == null) {
+            colors[silhouette] = color;
+        } else if (!colors[silhouette].equals(color)) {
+            return false;
+        }
+
+        int step = Math.round(rotation * ROTATION_STEPS / 360) & (ROTATION_STEPS - 1);
+
+        BufferedImage sprite = sprites[silhouette][step];
+        if (sprite == null) {
+            sprite = render(g, silhouette, color, step * 360f / ROTATION_STEPS);
+            sprites[silhouette][step] = sprite;
+        }
+
+        int half = sprite.getWidth() / 2;
+        g.drawImage(sprite, Math.round(x) - half, Math.round(y) - half, null);
+        return true;
+    }
+
+    /**
+     * Renders a silhouette into a new transparent image, centered and
+     * rotated.
+     */
+    private static BufferedImage render(Graphics2D g, int silhouette, Color color, float rotation) {
+        Outline outline = AsteroidSilhouettes.get(silhouette);
+
+        // Leave room for the width of the line around the outline
+        int half = (int) Math.ceil(outline.getRadius()) + 1;
+        int size = 2 * half + 1;
+
+        BufferedImage sprite = g.getDeviceConfiguration()
+                .createCompatibleImage(size, size, Transparency.BITMASK);
+
+        double radians = Math.toRadians(rotation);
+        float cos = (float) Math.cos(radians);
+        float sin = (float) Math.sin(radians);
+
+        Path2D.Float path = new Path2D.Float();
+        for (int i = 0; i < outline.size(); i++) {
+            float x = half + outline.getX(i) * cos - outline.getY(i) * sin;
+            float y = half + outline.getX(i) * sin + outline.getY(i) * cos;
+
+            if (i == 0) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
+        }
+        path.closePath();
+
+        Graphics2D sg = sprite.createGraphics();
+        sg.setColor(color);
+        sg.draw(path);
+        sg.dispose();
+
+        return sprite;
+    }
+}
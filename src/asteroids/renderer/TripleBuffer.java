@@ -0,0 +1,79 @@
+package asteroids.renderer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands data from one writer thread to one reader thread without locks.
+ *
+ * <p>There are three buffers. The writer fills its back buffer and publishes
+ * it, which swaps it with the middle buffer in a single atomic operation.
+ * The reader swaps its front buffer with the middle one when a new buffer
+ * was published since it last looked, and otherwise keeps reading the
+ * buffer it has. So the writer never waits for the reader, the reader
+ * always sees a complete buffer, and no buffer is ever read and written at
+ * the same time.
+ */
+public class TripleBuffer<T> {
+
+    // Set in the shared state when the middle buffer was published and the
+    // reader has not taken it yet.
+    private static final int FRESH = 4;
+
+    // The bits of the shared state holding the index of the middle buffer.
+    private static final int INDEX = 3;
+
+    private final Object[] buffers = new Object[3];
+
+    // The buffer only the writer uses.
+    private int writeIndex = 0;
+
+    // The buffer only the reader uses.
+    private int readIndex = 1;
+
+    // The index of the middle buffer, and whether it is fresh.
+    private final AtomicInteger middle = new AtomicInteger(2);
+
+    /**
+     * Creates a triple buffer.
+     * 
+     * @param factory creates each of the three buffers
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * Returns the buffer to fill. Must only be called by the writer.
+     * 
+     * @return the back buffer
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /**
+     * Publishes the filled back buffer to the reader and takes the middle
+     * buffer as the new back buffer. Must only be called by the writer.
+     */
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | FRESH) & INDEX;
+    }
+
+    /**
+     * Returns the most recently published buffer. Must only be called by the
+     * reader, and the buffer must not be used after the next call.
+     * 
+     * @return the front buffer
+     */
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+        if ((middle.get() & FRESH) != 0) {
+            readIndex = middle.getAndSet(readIndex) & INDEX;
+        }
+        return (T) buffers[readIndex];
+    }
+}
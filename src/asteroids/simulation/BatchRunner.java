@@ -0,0 +1,348 @@
+package asteroids.simulation;
+
+import java.awt.Dimension;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import asteroids.AsteroidsGame;
+
+/**
+ * Simulates many independent headless games in parallel and sums up how
+ * they went, e.g. to balance the asteroid spawning or to soak test the
+ * simulation.
+ *
+ * <p>Every game has its own {@link AsteroidsGame}, simulation and random
+ * numbers, so the games share nothing and run on all cores of a
+ * {@link ForkJoinPool}. Each game's seed comes from the batch seed and the
+ * game's index, so a batch gives the same results on any number of
+ * threads, and any single game can be run again from its seed.
+ */
+public class BatchRunner {
+
+    /**
+     * How one game went.
+     */
+    public static class GameResult {
+        public final long seed;
+        public final int score;
+        public final long ticks;
+        public final boolean isGameOver;
+        public final long nanos;
+        public final long maxTickNanos;
+
+        GameResult(long seed, int score, long ticks, boolean isGameOver, long nanos, long maxTickNanos) {
+            this.seed = seed;
+            this.score = score;
+            this.ticks = ticks;
+            this.isGameOver = isGameOver;
+            this.nanos = nanos;
+            this.maxTickNanos = maxTickNanos;
+        }
+    }
+
+    /**
+     * The totals of a number of games.
+     */
+    public static class Summary {
+        private long games = 0;
+        private long gamesOver = 0;
+        private long ticks = 0;
+        private long scoreSum = 0;
+        private double scoreSquareSum = 0;
+        private int minScore = Integer.MAX_VALUE;
+        private int maxScore = Integer.MIN_VALUE;
+        private long tickNanos = 0;
+        private long maxTickNanos = 0;
+        private long maxTickSeed = 0;
+
+        // Wall clock time of the whole batch, set when it is done
+        private long elapsedNanos = 0;
+
+        void add(GameResult result) {
+            games++;
+            if (result.isGameOver) {
+                gamesOver++;
+            }
+            ticks += result.ticks;
+            scoreSum += result.score;
+            scoreSquareSum += (double) result.score * result.score;
+            minScore = Math.min(minScore, result.score);
+            maxScore = Math.max(maxScore, result.score);
+            tickNanos += result.nanos;
+            if (result.maxTickNanos > maxTickNanos) {
+                maxTickNanos = result.maxTickNanos;
+                maxTickSeed = result.seed;
+            }
+        }
+
+        void combine(Summary other) {
+            games += other.games;
+            gamesOver += other.gamesOver;
+            ticks += other.ticks;
+            scoreSum += other.scoreSum;
+            scoreSquareSum += other.scoreSquareSum;
+            minScore = Math.min(minScore, other.minScore);
+            maxScore = Math.max(maxScore, other.maxScore);
+            tickNanos += other.tickNanos;
+            if (other.maxTickNanos > maxTickNanos) {
+                maxTickNanos = other.maxTickNanos;
+                maxTickSeed = other.maxTickSeed;
+            }
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getGamesOver() {
+            return gamesOver;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public long getScoreSum() {
+            return scoreSum;
+        }
+
+        public double getMeanScore() {
+            return games == 0 ? 0 : (double) scoreSum / games;
+        }
+
+        public double getScoreStandardDeviation() {
+            if (games == 0) {
+                return 0;
+            }
+            double mean = getMeanScore();
+            return Math.sqrt(Math.max(0, scoreSquareSum / games - mean * mean));
+        }
+
+        public int getMinScore() {
+            return games == 0 ? 0 : minScore;
+        }
+
+        public int getMaxScore() {
+            return games == 0 ? 0 : maxScore;
+        }
+
+        /**
+         * @return the mean amount of ticks a game lasted
+         */
+        public double getMeanLifetime() {
+            return games == 0 ? 0 : (double) ticks / games;
+        }
+
+        /**
+         * @return the mean nanoseconds one tick took to simulate
+         */
+        public double getMeanTickNanos() {
+            return ticks == 0 ? 0 : (double) tickNanos / ticks;
+        }
+
+        /**
+         * @return the nanoseconds the slowest tick of any game took
+         */
+        public long getMaxTickNanos() {
+            return maxTickNanos;
+        }
+
+        /**
+         * @return the seed of the game with the slowest tick
+         */
+        public long getMaxTickSeed() {
+            return maxTickSeed;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Writes the summary as <code>name: value</code> lines.
+         *
+         * @param writer the writer to write to. It is flushed, not closed.
+         */
+        public void writeTo(Writer writer) {
+            double seconds = elapsedNanos / 1e9;
+            PrintWriter out = new PrintWriter(writer);
+            out.printf("games: %d%n", games);
+            out.printf("games over: %d%n", gamesOver);
+            out.printf("ticks: %d%n", ticks);
+            out.printf("elapsed seconds: %.3f%n", seconds);
+            out.printf("games per second: %.1f%n", seconds == 0 ? 0 : games / seconds);
+            out.printf("ticks per second: %.0f%n", seconds == 0 ? 0 : ticks / seconds);
+            out.printf("mean score: %.1f%n", getMeanScore());
+            out.printf("score standard deviation: %.1f%n", getScoreStandardDeviation());
+            out.printf("min score: %d%n", getMinScore());
+            out.printf("max score: %d%n", getMaxScore());
+            out.printf("mean lifetime ticks: %.1f%n", getMeanLifetime());
+            out.printf("mean tick nanos: %.0f%n", getMeanTickNanos());
+            out.printf("max tick nanos: %d%n", maxTickNanos);
+            out.printf("max tick seed: %d%n", maxTickSeed);
+            out.flush();
+        }
+    }
+
+    /**
+     * Runs a range of games, splitting it in halves for other threads.
+     */
+    private class GameRange extends RecursiveTask<Summary> {
+        // Tasks are never serialized, but RecursiveTask is Serializable
+        private static final long serialVersionUID = 1L;
+
+        private final long baseSeed;
+        private final int from;
+        private final int to;
+
+        GameRange(long baseSeed, int from, int to) {
+            this.baseSeed = baseSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from == 1) {
+                Summary summary = new Summary();
+                summary.add(runGame(seedOf(baseSeed, from)));
+                return summary;
+            }
+
+            int middle = (from + to) >>> 1;
+            GameRange left = new GameRange(baseSeed, from, middle);
+            left.fork();
+            Summary summary = new GameRange(baseSeed, middle, to).compute();
+            summary.combine(left.join());
+            return summary;
+        }
+    }
+
+    // The size of the world
+    private final Dimension size;
+
+    // The number of simulation ticks per simulated second
+    private final int ticksPerSecond;
+
+    // The most ticks a game may last
+    private final long maxTicks;
+
+    // Plays the games
+    private final InputPolicy policy;
+
+    /**
+     * Creates a batch runner.
+     *
+     * @param size           the size of the world
+     * @param ticksPerSecond the number of ticks per simulated second
+     * @param maxTicks       the most ticks a game may last
+     * @param policy         plays the games
+     */
+    public BatchRunner(Dimension size, int ticksPerSecond, long maxTicks, InputPolicy policy) {
+        this.size = size;
+        this.ticksPerSecond = ticksPerSecond;
+        this.maxTicks = maxTicks;
+        this.policy = policy;
+    }
+
+    /**
+     * Returns the seed of a game of a batch.
+     *
+     * @param baseSeed the seed of the batch
+     * @param index    the index of the game in the batch
+     * @return the seed of the game
+     */
+    public static long seedOf(long baseSeed, int index) {
+        return baseSeed + index * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Simulates one game until it is over or it reaches the tick limit.
+     *
+     * @param seed the seed of the game and of its player
+     * @return how the game went
+     */
+    public GameResult runGame(long seed) {
+        HeadlessSimulation simulation = new HeadlessSimulation(new AsteroidsGame(size, seed), size, ticksPerSecond);
+        Random rand = new Random(~seed);
+        simulation.setInput(game -> game.applyInput(
+                policy.nextActions(game, simulation.getTick(), rand), ticksPerSecond));
+
+        AsteroidsGame game = simulation.getGame();
+        long maxTickNanos = 0;
+        long start = System.nanoTime();
+        while (!game.isGameOver() && simulation.getTick() < maxTicks) {
+            long tickStart = System.nanoTime();
+            simulation.step();
+            maxTickNanos = Math.max(maxTickNanos, System.nanoTime() - tickStart);
+        }
+        long nanos = System.nanoTime() - start;
+
+        return new GameResult(seed, game.getScore(), simulation.getTick(), game.isGameOver(), nanos, maxTickNanos);
+    }
+
+    /**
+     * Simulates a batch of games in parallel.
+     *
+     * @param games    the number of games
+     * @param baseSeed the seed of the batch
+     * @param pool     the pool to run the games in
+     * @return the totals of the games
+     */
+    public Summary run(int games, long baseSeed, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Summary summary = games > 0 ? pool.invoke(new GameRange(baseSeed, 0, games)) : new Summary();
+        summary.elapsedNanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    /**
+     * Simulates a batch of games on all cores, prints the summary and
+     * writes it to a file.
+     *
+     * @param args the number of games (default 10000), the most ticks per
+     *             game (default 10 simulated minutes), the input policy
+     *             (default RANDOM), the number of threads (default all
+     *             cores), the seed (default 0) and the summary file (default
+     *             gamedata/batch-summary.txt)
+     * @throws IOException if the summary cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int ticksPerSecond = 60;
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : 10 * 60 * ticksPerSecond;
+        InputPolicy policy = args.length > 2 ? InputPolicy.valueOf(args[2]) : InputPolicy.RANDOM;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+        Path output = Path.of(args.length > 5 ? args[5] : "gamedata/batch-summary.txt");
+
+        BatchRunner runner = new BatchRunner(new Dimension(600, 600), ticksPerSecond, maxTicks, policy);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Summary summary;
+        try {
+            summary = runner.run(games, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(output)) {
+            writer.write("policy: " + policy + System.lineSeparator());
+            writer.write("threads: " + threads + System.lineSeparator());
+            writer.write("seed: " + seed + System.lineSeparator());
+            summary.writeTo(writer);
+        }
+
+        summary.writeTo(new PrintWriter(System.out));
+        System.out.println("Summary written to " + output);
+    }
+}
@@ -0,0 +1,161 @@
+package asteroids.simulation;
+
+import java.awt.Dimension;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import asteroids.AsteroidsGame;
+
+/**
+ * Steps an {@link AsteroidsGame} without any display, as fast as the CPU
+ * allows. Nothing here touches AWT windows or Swing, so it runs on servers
+ * without a display, e.g. for balancing runs, soak tests and benchmarks.
+ */
+public class HeadlessSimulation implements SimulationContext {
+
+    // The game being simulated.
+    private final AsteroidsGame game;
+
+    // The size of the world.
+    private final int width;
+    private final int height;
+
+    // The number of simulation ticks per simulated second.
+    public final int ticksPerSecond;
+
+    // Applies the input for the next tick to the game, e.g. a bot.
+    private Consumer<AsteroidsGame> input = game -> {
+    };
+
+    // The number of ticks simulated so far.
+    private long tick = 0;
+
+    /**
+     * Creates a headless simulation of a new game.
+     * 
+     * @param size           the size of the world
+     * @param ticksPerSecond the number of ticks per simulated second
+     */
+    public HeadlessSimulation(Dimension size, int ticksPerSecond) {
+        this(new AsteroidsGame(size), size, ticksPerSecond);
+    }
+
+    /**
+     * Creates a headless simulation of an existing game.
+     * 
+     * @param game           the game to simulate
+     * @param size           the size of the world
+     * @param ticksPerSecond the number of ticks per simulated second
+     */
+    public HeadlessSimulation(AsteroidsGame game, Dimension size, int ticksPerSecond) {
+        assert ticksPerSecond > 0 : "Invalid ticks per second";
+        this.game = game;
+        this.width = size.width;
+        this.height = size.height;
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    /**
+     * Sets the input applied to the game at the start of every tick.
+     * 
+     * @param input the function applying the input
+     */
+    public void setInput(Consumer<AsteroidsGame> input) {
+        this.input = input;
+    }
+
+    @Override
+    public int getWorldWidth() {
+        return width;
+    }
+
+    @Override
+    public int getWorldHeight() {
+        return height;
+    }
+
+    @Override
+    public float getTickDuration() {
+        return 1f / ticksPerSecond;
+    }
+
+    public AsteroidsGame getGame() {
+        return game;
+    }
+
+    /**
+     * @return the number of ticks simulated so far
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Simulates one tick, the same way the renderer does.
+     */
+    public void step() {
+        game.savePreviousState();
+        input.accept(game);
+        game.nextFrame(this);
+        tick++;
+    }
+
+    /**
+     * Simulates until the game is over or the tick limit is reached.
+     * 
+     * @param maxTicks the most ticks to simulate
+     * @return the number of ticks simulated
+     */
+    public long run(long maxTicks) {
+        long start = tick;
+        while (!game.isGameOver() && tick - start < maxTicks) {
+            step();
+        }
+        return tick - start;
+    }
+
+    /**
+     * Simulates a number of games with random input and prints how fast
+     * they ran.
+     * 
+     * @param args the number of games (default 1000) and the most ticks per
+     *             game (default 10 simulated minutes)
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int ticksPerSecond = 60;
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : 10 * 60 * ticksPerSecond;
+
+        Dimension size = new Dimension(600, 600);
+        Random rand = new Random();
+
+        long totalTicks = 0;
+        long totalScore = 0;
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < games; i++) {
+            HeadlessSimulation simulation = new HeadlessSimulation(size, ticksPerSecond);
+
+            // Thrust, turn and shoot at random
+            simulation.setInput(game -> {
+                if (rand.nextInt(4) == 0) {
+                    game.ship.enableThrust(ticksPerSecond);
+                }
+                if (rand.nextInt(3) == 0) {
+                    game.ship.rotateLeft(ticksPerSecond);
+                }
+                if (rand.nextInt(10) == 0) {
+                    game.shootBullet();
+                }
+            });
+
+            totalTicks += simulation.run(maxTicks);
+            totalScore += simulation.getGame().getScore();
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("%d games, %d ticks in %.2f s: %.0f games/s, %.0f ticks/s, average score %.1f%n",
+                games, totalTicks, seconds, games / seconds, totalTicks / seconds,
+                (double) totalScore / games);
+    }
+}
@@ -0,0 +1,68 @@
+package asteroids.simulation;
+
+import java.util.Random;
+
+import asteroids.AsteroidsGame;
+import asteroids.AsteroidsRenderer.ActionType;
+
+/**
+ * Plays a headless game in place of a player, by choosing the actions of
+ * every tick. A policy only uses the random numbers it is given, so games
+ * played by it can be repeated.
+ */
+public enum InputPolicy {
+
+    /**
+     * Never does anything, to see how long a game lasts on its own.
+     */
+    IDLE {
+        @Override
+        public int nextActions(AsteroidsGame game, long tick, Random rand) {
+            return 0;
+        }
+    },
+
+    /**
+     * Thrusts, turns and shoots at random.
+     */
+    RANDOM {
+        @Override
+        public int nextActions(AsteroidsGame game, long tick, Random rand) {
+            int actions = 0;
+            if (rand.nextInt(4) == 0) {
+                actions |= ActionType.THRUST.mask();
+            }
+            if (rand.nextInt(3) == 0) {
+                actions |= ActionType.ROTATE_LEFT.mask();
+            }
+            if (rand.nextInt(10) == 0) {
+                actions |= ActionType.SHOOT.mask();
+            }
+            return actions;
+        }
+    },
+
+    /**
+     * Stays in place, turning and shooting at a steady rate.
+     */
+    SPIN_AND_SHOOT {
+        @Override
+        public int nextActions(AsteroidsGame game, long tick, Random rand) {
+            int actions = ActionType.ROTATE_LEFT.mask();
+            if (tick % 8 == 0) {
+                actions |= ActionType.SHOOT.mask();
+            }
+            return actions;
+        }
+    };
+
+    /**
+     * Chooses the actions of a tick.
+     * 
+     * @param game the game being played
+     * @param tick the number of the tick, from 0
+     * @param rand the random numbers of this game's player
+     * @return the action mask, see {@link AsteroidsGame#applyInput}
+     */
+    public abstract int nextActions(AsteroidsGame game, long tick, Random rand);
+}
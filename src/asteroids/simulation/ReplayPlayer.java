@@ -0,0 +1,215 @@
+package asteroids.simulation;
+
+import java.awt.Dimension;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import asteroids.AsteroidsGame;
+import asteroids.GameMode;
+import asteroids.object.GameObject;
+
+/**
+ * Plays a replay written by {@link ReplayRecorder} again, without any
+ * display and as fast as the CPU allows. The game is created from the
+ * recorded seed and size, and given the recorded input every tick, so it
+ * plays out exactly like the recorded one.
+ */
+public class ReplayPlayer {
+
+    // The settings of the recorded game
+    private final long seed;
+    private final int width;
+    private final int height;
+    private final int ticksPerSecond;
+    private final boolean trigTableEnabled;
+    private final GameMode mode;
+
+    // The runs of ticks with the same action mask
+    private final int[] runMasks;
+    private final long[] runLengths;
+    private final long ticks;
+
+    private ReplayPlayer(long seed, GameMode mode, int width, int height, int ticksPerSecond,
+            boolean trigTableEnabled, int[] runMasks, long[] runLengths) {
+        this.seed = seed;
+        this.mode = mode;
+        this.width = width;
+        this.height = height;
+        this.ticksPerSecond = ticksPerSecond;
+        this.trigTableEnabled = trigTableEnabled;
+        this.runMasks = runMasks;
+        this.runLengths = runLengths;
+        this.ticks = Arrays.stream(runLengths).sum();
+    }
+
+    /**
+     * Reads a replay.
+     * 
+     * @param in the stream to read from. It is not closed.
+     * @return the player of the replay
+     * @throws IOException if the stream cannot be read or is not a replay
+     */
+    public static ReplayPlayer read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != ReplayRecorder.MAGIC) {
+            throw new IOException("Not a replay");
+        }
+        int version = data.readByte();
+        if (version < 1 || version > ReplayRecorder.FORMAT_VERSION) {
+            throw new IOException("Unknown replay version " + version);
+        }
+        long seed = data.readLong();
+        int width = data.readInt();
+        int height = data.readInt();
+        int ticksPerSecond = data.readInt();
+        boolean trigTableEnabled = data.readBoolean();
+        GameMode mode = GameMode.CLASSIC;
+        if (version >= 2) {
+            int ordinal = data.readByte();
+            if (ordinal < 0 || ordinal >= GameMode.values().length) {
+                throw new IOException("Unknown game mode " + ordinal);
+            }
+            mode = GameMode.values()[ordinal];
+        }
+
+        int[] masks = new int[64];
+        long[] lengths = new long[64];
+        int runs = 0;
+        while (true) {
+            int mask = data.read();
+            if (mask < 0) {
+                break;
+            }
+
+            long length = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = data.read();
+                if (b < 0 || shift > 56) {
+                    throw new EOFException("Replay is truncated");
+                }
+                length |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            if (runs == masks.length) {
+                masks = Arrays.copyOf(masks, runs * 2);
+                lengths = Arrays.copyOf(lengths, runs * 2);
+            }
+            masks[runs] = mask;
+            lengths[runs] = length;
+            runs++;
+        }
+
+        return new ReplayPlayer(seed, mode, width, height, ticksPerSecond, trigTableEnabled,
+                Arrays.copyOf(masks, runs), Arrays.copyOf(lengths, runs));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the amount of ticks recorded
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Creates a simulation of the recorded game, which is given the
+     * recorded input tick by tick. Step it {@link #getTicks()} times to
+     * play the whole replay. Also sets whether objects use the trig table,
+     * as it was when recording.
+     * 
+     * @return the simulation
+     */
+    public HeadlessSimulation createSimulation() {
+        GameObject.setTrigTableEnabled(trigTableEnabled);
+
+        Dimension size = new Dimension(width, height);
+        HeadlessSimulation simulation = new HeadlessSimulation(new AsteroidsGame(size, seed, mode), size, ticksPerSecond);
+        simulation.setInput(new Consumer<AsteroidsGame>() {
+            // The run being played, and the ticks of it already played
+            private int run = 0;
+            private long played = 0;
+
+            @Override
+            public void accept(AsteroidsGame game) {
+                while (run < runMasks.length && played == runLengths[run]) {
+                    run++;
+                    played = 0;
+                }
+                if (run < runMasks.length) {
+                    played++;
+                    game.applyInput(runMasks[run], ticksPerSecond);
+                }
+            }
+        });
+        return simulation;
+    }
+
+    /**
+     * Plays the whole replay.
+     * 
+     * @return the simulation after the last recorded tick
+     */
+    public HeadlessSimulation play() {
+        HeadlessSimulation simulation = createSimulation();
+        for (long i = 0; i < ticks; i++) {
+            simulation.step();
+        }
+        return simulation;
+    }
+
+    /**
+     * Plays a replay file and prints the result and the slowest tick, to
+     * find performance spikes of recorded games.
+     * 
+     * @param args the path of the replay
+     * @throws IOException if the replay cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: ReplayPlayer <replay file>");
+            return;
+        }
+
+        ReplayPlayer player;
+        try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+            player = ReplayPlayer.read(in);
+        }
+
+        HeadlessSimulation simulation = player.createSimulation();
+        long slowestTick = 0;
+        long slowestNanos = 0;
+        long startTime = System.nanoTime();
+        for (long i = 0; i < player.getTicks(); i++) {
+            long tickStart = System.nanoTime();
+            simulation.step();
+            long nanos = System.nanoTime() - tickStart;
+            if (nanos > slowestNanos) {
+                slowestNanos = nanos;
+                slowestTick = i;
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        AsteroidsGame game = simulation.getGame();
+        System.out.printf("seed %d, %d ticks in %.3f s, score %d, lives %d, slowest tick %d (%.1f us)%n",
+                player.getSeed(), player.getTicks(), seconds, game.getScore(), game.getLives(),
+                slowestTick, slowestNanos / 1e3);
+    }
+}
@@ -0,0 +1,143 @@
+package asteroids.simulation;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import asteroids.GameMode;
+import asteroids.object.GameObject;
+import asteroids.utils.Log;
+
+/**
+ * Records the input of a game into a compact binary replay, which
+ * {@link ReplayPlayer} plays again.
+ *
+ * <p>A game is fully decided by its seed, its mode, its size, its tick rate
+ * and the action mask of every tick, so that is all a replay holds. The
+ * header has the magic number, the format version, the seed, the size, the
+ * tick rate, whether the trig table was used and the game mode. Version 1
+ * replays have no game mode and are classic games. It is followed by runs of ticks with
+ * the same mask: the mask as one byte, and the length of the run as a
+ * variable length number of 7 bits per byte. A player holding a key for
+ * a second is a single run.
+ */
+public class ReplayRecorder implements Closeable {
+
+    // Start of a replay
+    static final int MAGIC = 0x41535452; // "ASTR"
+    static final int FORMAT_VERSION = 2;
+
+    // The replay being written
+    private final DataOutputStream out;
+
+    // The mask and length of the run being recorded
+    private int runMask = 0;
+    private long runLength = 0;
+
+    // The amount of ticks recorded
+    private long ticks = 0;
+
+    // Set when closed, or when writing failed
+    private boolean closed = false;
+
+    /**
+     * Starts a replay of a classic game by writing its header.
+     * 
+     * @param out            the stream to write to. It is closed with the recorder.
+     * @param seed           the seed of the game
+     * @param width          the width of the world
+     * @param height         the height of the world
+     * @param ticksPerSecond the ticks per second of the game
+     * @throws IOException if the stream cannot be written
+     */
+    public ReplayRecorder(OutputStream out, long seed, int width, int height, int ticksPerSecond)
+            throws IOException {
+        this(out, seed, GameMode.CLASSIC, width, height, ticksPerSecond);
+    }
+
+    /**
+     * Starts a replay by writing its header.
+     * 
+     * @param out            the stream to write to. It is closed with the recorder.
+     * @param seed           the seed of the game
+     * @param mode           the mode of the game
+     * @param width          the width of the world
+     * @param height         the height of the world
+     * @param ticksPerSecond the ticks per second of the game
+     * @throws IOException if the stream cannot be written
+     */
+    public ReplayRecorder(OutputStream out, long seed, GameMode mode, int width, int height, int ticksPerSecond)
+            throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(FORMAT_VERSION);
+        this.out.writeLong(seed);
+        this.out.writeInt(width);
+        this.out.writeInt(height);
+        this.out.writeInt(ticksPerSecond);
+        this.out.writeBoolean(GameObject.isTrigTableEnabled());
+        this.out.writeByte(mode.ordinal());
+    }
+
+    /**
+     * Records the input of a tick. Does nothing once closed.
+     * 
+     * @param actionMask the action mask applied in the tick
+     */
+    public synchronized void record(int actionMask) {
+        if (closed) {
+            return;
+        }
+        if (actionMask != runMask && runLength > 0) {
+            writeRun();
+        }
+        runMask = actionMask;
+        runLength++;
+        ticks++;
+    }
+
+    /**
+     * @return the amount of ticks recorded
+     */
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Writes the last run and closes the stream. Calling it again does
+     * nothing.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (runLength > 0) {
+                writeRun();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeRun() {
+        try {
+            out.writeByte(runMask);
+            long length = runLength;
+            while (length >= 0x80) {
+                out.writeByte((int) (length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            out.writeByte((int) length);
+            runLength = 0;
+        } catch (IOException e) {
+            // Stop recording rather than stopping the game
+            closed = true;
+            Log.warn("An error occurred while recording the replay: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package asteroids.simulation;
+
+/**
+ * The world a game is simulated in: the size of the area the objects wrap
+ * around, and the length of one simulation tick.
+ *
+ * <p>The game only needs these values to advance, so it can be stepped by the
+ * Swing renderer as well as without any display at all.
+ */
+public interface SimulationContext {
+
+    /**
+     * @return the width of the world, in pixels
+     */
+    int getWorldWidth();
+
+    /**
+     * @return the height of the world, in pixels
+     */
+    int getWorldHeight();
+
+    /**
+     * @return the length of one simulation tick, in seconds
+     */
+    float getTickDuration();
+}
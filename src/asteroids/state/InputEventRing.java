@@ -0,0 +1,143 @@
+package asteroids.state;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size queue of input events, passed from one thread to one other
+ * thread without locks.
+ *
+ * <p>The event thread adds each key press and release with the time it
+ * happened, and the simulation thread takes them out in order at the start
+ * of a tick. The events are kept in parallel arrays used as a ring. The
+ * producer only writes the tail and the consumer only writes the head, and
+ * each publishes its side with a release write after touching the arrays,
+ * so the other side sees complete events.
+ *
+ * <p>If the simulation stops taking events, for example while the game is
+ * over, the ring fills up and new events are dropped and counted.
+ */
+public class InputEventRing {
+
+    /**
+     * Receives the events taken out of the ring.
+     */
+    public interface Handler {
+        /**
+         * @param action    the index of the input the event is for
+         * @param pressed   true for a press, false for a release
+         * @param timeNanos the System.nanoTime of the event
+         */
+        void onInputEvent(int action, boolean pressed, long timeNanos);
+    }
+
+    // The events. Only the producer writes them, before publishing the tail.
+    private final int[] actions;
+    private final boolean[] pressed;
+    private final long[] times;
+
+    // Capacity - 1, the capacity being a power of two
+    private final int mask;
+
+    // The next event to take, written only by the consumer
+    private final AtomicLong head = new AtomicLong();
+
+    // The next free place, written only by the producer
+    private final AtomicLong tail = new AtomicLong();
+
+    // The producer's copy of the head, to avoid reading the shared one
+    // for every event
+    private long cachedHead = 0;
+
+    // The amount of events dropped because the ring was full
+    private volatile long dropped = 0;
+
+    /**
+     * Creates a ring.
+     *
+     * @param capacity the most events it holds. Rounded up to a power of two.
+     */
+    public InputEventRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        actions = new int[size];
+        pressed = new boolean[size];
+        times = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Adds an event. Only one thread may add events.
+     *
+     * @param action    the index of the input the event is for
+     * @param isPressed true for a press, false for a release
+     * @param timeNanos the System.nanoTime of the event
+     * @return false if the ring was full and the event was dropped
+     */
+    public boolean offer(int action, boolean isPressed, long timeNanos) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                dropped++;
+                return false;
+            }
+        }
+
+        int index = (int) t & mask;
+        actions[index] = action;
+        pressed[index] = isPressed;
+        times[index] = timeNanos;
+
+        // Publish the event to the consumer
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Takes out, in order, the events that happened up to a time, and
+     * passes them to a handler. Stops at the first later event. Only one
+     * thread may take events.
+     *
+     * @param untilNanos the System.nanoTime up to which to take events
+     * @param handler    receives the events
+     * @return the amount of events taken
+     */
+    public int drain(long untilNanos, Handler handler) {
+        long h = head.get();
+        long t = tail.get();
+
+        int count = 0;
+        while (h < t) {
+            int index = (int) h & mask;
+            if (times[index] - untilNanos > 0) {
+                break;
+            }
+            handler.onInputEvent(actions[index], pressed[index], times[index]);
+            h++;
+            count++;
+        }
+
+        // Give the places back to the producer
+        head.lazySet(h);
+        return count;
+    }
+
+    /**
+     * @return the amount of events waiting to be taken
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * @return the amount of events that did not fit in the ring
+     */
+    public long getDropped() {
+        return dropped;
+    }
+}
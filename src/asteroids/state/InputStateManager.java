@@ -2,7 +2,7 @@ package asteroids.state;
 import java.util.function.Consumer;
 import java.util.List;
 import java.util.ArrayList;
-import javax.swing.JComponent;
+import java.awt.Component;
 
 
 import asteroids.utils.InputHandler;
@@ -15,21 +15,62 @@ public class InputStateManager {
 
     private static InputHandler inputHandler;
 
+    // The most key events waiting between two ticks
+    private static final int EVENT_CAPACITY = 256;
+
+    /**
+     * Key events, passed from the event thread to the simulation
+     * thread. The event thread never touches the input states itself.
+     */
+    private static InputEventRing events;
+
+    // Applies a key event to its input state, see update
+    private static final InputEventRing.Handler applyEvent = (action, pressed, timeNanos) -> {
+        InputStateManager.actions.get(action).apply(pressed);
+    };
+
     public static void init() {
         inputHandler = new InputHandler();
         actions = new ArrayList<>();
+        events = new InputEventRing(EVENT_CAPACITY);
     }
 
     /**
-     * Update every input states that are managed here.
+     * Update every input states that are managed here, applying every key
+     * event received so far.
      * <p>Should be invoked from the nextFrame method. 
      */
     public static void update() {
+        update(System.nanoTime());
+    }
+
+    /**
+     * Update every input states that are managed here.
+     * <p>First the key events that happened up to the time of the tick are
+     * applied in order. Then each action is triggered: a repeatable action
+     * if its key is held or was pressed since the last tick, and any other
+     * action once for every time its key was pressed, at most once per
+     * tick. So a tap shorter than a tick is never lost.
+     * <p>Should be invoked from the nextFrame method. 
+     * 
+     * @param tickTimeNanos the System.nanoTime the tick stands for. Later
+     *                      events are left for the next tick.
+     */
+    public static void update(long tickTimeNanos) {
+        events.drain(tickTimeNanos, applyEvent);
         for (InputState action: actions) {
             action.update();
         }
     }
 
+    /**
+     * @return the amount of key events dropped because the simulation did
+     *         not take them in time
+     */
+    public static long getDroppedEvents() {
+        return events.getDropped();
+    }
+
     /**
      * In case that you want to reuse some of the states 
      * here and define a customized behavior to be
@@ -60,7 +101,8 @@ public class InputStateManager {
         public boolean isKeyPressed;
         public Consumer<Void> func;
 
-        public boolean start;
+        // Times the key went down since the last update
+        public int presses;
 
         public InputState(
             boolean repeatable,
@@ -69,7 +111,7 @@ public class InputStateManager {
             this.repeatable = repeatable;
             this.isKeyPressed = false;
             this.func = func;
-            this.start = false;
+            this.presses = 0;
         }
 
         public void trigger() {
@@ -78,20 +120,28 @@ public class InputStateManager {
             }
         }
 
+        /**
+         * Applies a key event. Presses repeated by the keyboard while
+         * the key is held are not counted.
+         */
+        public void apply(boolean pressed) {
+            if (pressed && !isKeyPressed) {
+                presses++;
+            }
+            isKeyPressed = pressed;
+        }
+
         public void update() {
-            if (isKeyPressed) {
-                if (repeatable) {
-                    trigger();
-                    return;
-                }
-                /* If not repeatable: check if the action has been started */
-                if (!start) {
+            if (repeatable) {
+                if (isKeyPressed || presses > 0) {
                     trigger();
-                    start = true;
-                    return;
                 }
-            } else {
-                start = false;
+                presses = 0;
+            } else if (presses > 0) {
+                /* If not repeatable: trigger once for every press, at most
+                   once per tick. Presses left over wait for the next ticks. */
+                trigger();
+                presses--;
             }
         }
     }
@@ -112,21 +162,19 @@ public class InputStateManager {
     ) {
 
         InputState action = new InputState(repeatable, func);
+        int index = actions.size();
         actions.add(action);
 
+        /* The key listener only queues the event, see update */
         inputHandler.setKeyMapping(
             key,
-            Void -> {
-                action.isKeyPressed = true;
-            },
+            Void -> events.offer(index, true, System.nanoTime()),
             KeyOp.Press
         );
 
         inputHandler.setKeyMapping(
             key,
-            Void -> {
-                action.isKeyPressed = false;
-            },
+            Void -> events.offer(index, false, System.nanoTime()),
             KeyOp.Release
         );
 
@@ -136,7 +184,7 @@ public class InputStateManager {
     /**
      * @param cmp The component (high level main component of the app) be bind this manager to.
      */
-    public static void bindInputListener(JComponent cmp) {
+    public static void bindInputListener(Component cmp) {
         inputHandler.registerToComponent(cmp);
     }
 
@@ -6,6 +6,11 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * A series of static methods that handle interactions with local files
@@ -15,20 +20,177 @@ public class FileManager {
     /* The path to store e.g. high score file. A relative path from the root dir of proj */
     public static final String GAMEDATA_DIR = "gamedata/";
 
-    /* File that stores score record */
+    /* Text file that stored score records before HIGH_SCORES_FILE. Only read to migrate them. */
     public static final String SCORES_FILE = "scores.txt";
 
+    /* Binary file that stores score records, replacing SCORES_FILE */
+    public static final String HIGH_SCORES_FILE = "scores.dat";
+
+    /* File that stores the best score of each player */
+    public static final String LEADERBOARD_FILE = "leaderboard.dat";
+
+    // The opened high score file, see getHighScoreStore
+    private static HighScoreStore highScoreStore;
+
+    // The background writer of the high score file, see getScoreWriter
+    private static ScoreWriter scoreWriter;
+
+    // The loaded leaderboard, see getLeaderboard
+    private static Leaderboard leaderboard;
+
+    /**
+     * Returns the high score file, opening it on first use. If it does not
+     * exist yet, the scores of SCORES_FILE are copied into it.
+     * 
+     * @return the high score file, or null if it cannot be opened
+     */
+    public static synchronized HighScoreStore getHighScoreStore() {
+        if (highScoreStore == null) {
+            try {
+                highScoreStore = HighScoreStore.open(
+                        Path.of(GAMEDATA_DIR + HIGH_SCORES_FILE),
+                        Path.of(GAMEDATA_DIR + SCORES_FILE));
+            } catch (IOException e) {
+                Log.warn("An error occurred while opening the high scores: {}", e.getMessage());
+            }
+        }
+        return highScoreStore;
+    }
+
+    /**
+     * Returns the leaderboard, loading it on first use. Scores added to the
+     * high score file since the leaderboard was saved are added to it, so
+     * only those are read.
+     * 
+     * @return the leaderboard. Empty if the high score file cannot be opened.
+     */
+    public static synchronized Leaderboard getLeaderboard() {
+        if (leaderboard != null) {
+            return leaderboard;
+        }
+
+        Path file = Path.of(GAMEDATA_DIR + LEADERBOARD_FILE);
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                leaderboard = Leaderboard.readFrom(in);
+            } catch (IOException e) {
+                Log.warn("An error occurred while reading the leaderboard: {}", e.getMessage());
+            }
+        }
+
+        HighScoreStore store = getHighScoreStore();
+        if (store == null) {
+            if (leaderboard == null) {
+                leaderboard = new Leaderboard();
+            }
+            return leaderboard;
+        }
+
+        // Start over if the leaderboard has seen scores the file does not have
+        if (leaderboard == null || leaderboard.getRecordCount() > store.getRecordCount()) {
+            leaderboard = new Leaderboard();
+        }
+        try {
+            for (long i = leaderboard.getRecordCount(); i < store.getRecordCount(); i++) {
+                HighScoreStore.Entry entry = store.getRecord((int) i);
+                leaderboard.add(entry.name, entry.score);
+            }
+        } catch (IOException e) {
+            Log.warn("An error occurred while reading the high scores: {}", e.getMessage());
+        }
+        return leaderboard;
+    }
+
+    /**
+     * Writes the leaderboard to its file, if it is loaded.
+     */
+    public static synchronized void saveLeaderboard() {
+        if (leaderboard == null) {
+            return;
+        }
+
+        // Write to a temporary file first, so a crash never leaves half a file
+        Path file = Path.of(GAMEDATA_DIR + LEADERBOARD_FILE);
+        Path temporary = Path.of(GAMEDATA_DIR + LEADERBOARD_FILE + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                leaderboard.writeTo(out);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Log.warn("An error occurred while writing the leaderboard: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the writer adding scores to the high score file in the
+     * background, starting it on first use. It is flushed and closed when
+     * the program exits.
+     * 
+     * @return the score writer, or null if the high score file cannot be opened
+     */
+    public static synchronized ScoreWriter getScoreWriter() {
+        if (scoreWriter == null) {
+            HighScoreStore store = getHighScoreStore();
+            if (store == null) {
+                return null;
+            }
+            scoreWriter = new ScoreWriter(store);
+            Runtime.getRuntime().addShutdownHook(new Thread(FileManager::closeScores));
+        }
+        return scoreWriter;
+    }
+
+    /**
+     * Queues a score to be added to the high score file. Returns without
+     * waiting for the file to be written.
+     * 
+     * @param name  the name of the player
+     * @param score the score
+     */
+    public static void submitScore(String name, int score) {
+        ScoreWriter writer = getScoreWriter();
+        if (writer != null) {
+            // Load the leaderboard before queueing, so it does not read the
+            // score from the file again
+            getLeaderboard().add(name, score);
+            writer.submit(name, score);
+        }
+    }
+
+    /**
+     * Writes every queued score, stops the score writer, saves the
+     * leaderboard and closes the high score file.
+     */
+    public static synchronized void closeScores() {
+        if (scoreWriter != null) {
+            scoreWriter.close();
+            scoreWriter = null;
+        }
+        saveLeaderboard();
+        leaderboard = null;
+        if (highScoreStore != null) {
+            try {
+                highScoreStore.close();
+            } catch (IOException e) {
+                Log.warn("An error occurred while closing the high scores: {}", e.getMessage());
+            }
+            highScoreStore = null;
+        }
+    }
+
     // Method to create a file if it doesn't exist
     public static void createFile(String fileName) {
         File file = new File(GAMEDATA_DIR + fileName);
         try {
             if (file.createNewFile()) {
-                System.out.println("File created: " + fileName);
+                Log.info("File created: {}", fileName);
             } else {
-                System.out.println("File already exists: " + fileName);
+                Log.debug("File already exists: {}", fileName);
             }
         } catch (IOException e) {
-            System.out.println("An error occurred while creating the file: " + e.getMessage());
+            Log.warn("An error occurred while creating the file: {}", e.getMessage());
         }
     }
 
@@ -36,17 +198,17 @@ public class FileManager {
     public static void writeToFile(String fileName, String content) throws FileNotFoundException {
         try (FileWriter writer = new FileWriter(GAMEDATA_DIR + fileName, true)) {
             writer.write(content + System.lineSeparator());
-            System.out.println("Content has been appended to file: " + fileName);
+            Log.debug("Content has been appended to file: {}", fileName);
             writer.close();
         } catch (FileNotFoundException e) {
             throw e;
         } catch (IOException e) {
-            System.out.println("An error occurred while writing to the file: " + e.getMessage());
+            Log.warn("An error occurred while writing to the file: {}", e.getMessage());
         }
     }
 
     public static void writeOrCreate(String fileName, String content) {
-        System.out.println("[writeOrCreate]");
+        Log.debug("[writeOrCreate]");
         try {
             writeToFile(fileName, content);
             return;
@@ -55,10 +217,10 @@ public class FileManager {
             try {
                 writeToFile(fileName, content);
             } catch (Exception e2) {
-                System.out.println("An error occurred while writing to the file: " + e2.getMessage());
+                Log.warn("An error occurred while writing to the file: {}", e2.getMessage());
             }
         } catch (Exception e) {
-            System.out.println("An error occurred while writing to the file: " + e.getMessage());
+            Log.warn("An error occurred while writing to the file: {}", e.getMessage());
         }
     }
 
@@ -71,7 +233,7 @@ public class FileManager {
                 content.append(line).append(System.lineSeparator());
             }
         } catch (IOException e) {
-            System.out.println("An error occurred while reading the file: " + e.getMessage());
+            Log.warn("An error occurred while reading the file: {}", e.getMessage());
         }
         return content.toString();
     }
@@ -0,0 +1,371 @@
+package asteroids.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A binary file of scores, which keeps the best scores in its header.
+ *
+ * <p>The file starts with a header holding the number of records and the
+ * {@link #TOP_COUNT} best records, sorted from best to worst. The header is
+ * memory mapped, so the high score and the best scores are read without
+ * touching the rest of the file. It is followed by every score ever added,
+ * as fixed size records in the order they were added. Adding a score
+ * writes one record at the end and updates the header; nothing else is
+ * rewritten.
+ *
+ * <p>Each record is the score as an int, followed by the player's name in
+ * UTF-8, padded with zeros to {@link #NAME_BYTES} bytes. Longer names are
+ * cut off.
+ */
+public class HighScoreStore implements Closeable {
+
+    /**
+     * A score of a player.
+     */
+    public static class Entry {
+        public final String name;
+        public final int score;
+
+        public Entry(String name, int score) {
+            this.name = name;
+            this.score = score;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + score;
+        }
+    }
+
+    // The amount of best scores kept in the header
+    public static final int TOP_COUNT = 10;
+
+    // The most bytes of a name that are stored
+    public static final int NAME_BYTES = 28;
+
+    // Bytes of one record: the score and the name
+    static final int RECORD_SIZE = Integer.BYTES + NAME_BYTES;
+
+    // The header: magic number, format version, record count, amount of
+    // best scores, and the best scores themselves
+    private static final int MAGIC = 0x41535453; // "ASTS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int COUNT_OFFSET = 8;
+    private static final int TOP_SIZE_OFFSET = 12;
+    private static final int TOP_OFFSET = 16;
+    static final int HEADER_SIZE = TOP_OFFSET + TOP_COUNT * RECORD_SIZE;
+
+    // The open file
+    private final FileChannel channel;
+
+    // The header, mapped into memory
+    private final MappedByteBuffer header;
+
+    // A buffer to read and write one record
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+    /**
+     * Opens a score file, creating it if it does not exist.
+     *
+     * @param file the path of the file
+     * @throws IOException if the file cannot be opened, or is not a score file
+     */
+    public HighScoreStore(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean isNew = channel.size() == 0;
+            if (!isNew && channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a high score file: " + file);
+            }
+
+            // Mapping a new file grows it to the size of the header
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (isNew) {
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(VERSION_OFFSET, FORMAT_VERSION);
+                header.putInt(COUNT_OFFSET, 0);
+                header.putInt(TOP_SIZE_OFFSET, 0);
+            } else if (header.getInt(MAGIC_OFFSET) != MAGIC
+                    || header.getInt(VERSION_OFFSET) != FORMAT_VERSION) {
+                throw new IOException("Not a high score file: " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a score file. If it does not exist yet, but a text file of
+     * <code>name score</code> lines does, the scores of the text file are
+     * copied into the new file once. The text file is left as it is.
+     *
+     * <p>The scores are copied into a temporary file, which is only moved
+     * into place once it is complete. So if copying fails, no score file is
+     * left behind and the text file is copied again next time. The text
+     * file was written in the platform's charset, and is read leniently in
+     * it, so a name that does not decode cannot stop the copy.
+     *
+     * @param file       the path of the score file
+     * @param legacyFile the path of the text file
+     * @return the opened store
+     * @throws IOException if either file cannot be read
+     */
+    public static HighScoreStore open(Path file, Path legacyFile) throws IOException {
+        if (!Files.exists(file) && Files.exists(legacyFile)) {
+            migrate(legacyFile, file);
+        }
+        return new HighScoreStore(file);
+    }
+
+    /**
+     * Copies the scores of a text file into a new score file.
+     */
+    private static void migrate(Path legacyFile, Path file) throws IOException {
+        // Decoding a String replaces malformed input instead of throwing
+        String text = new String(Files.readAllBytes(legacyFile), Charset.defaultCharset());
+
+        List<Entry> entries = new ArrayList<>();
+        for (String line : text.split("\\R")) {
+            // The name may contain spaces, the score is after the last one
+            int split = line.lastIndexOf(' ');
+            if (split < 0) {
+                continue;
+            }
+            try {
+                entries.add(new Entry(line.substring(0, split), Integer.parseInt(line.substring(split + 1).trim())));
+            } catch (NumberFormatException e) {
+                // Skip lines without a score
+            }
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (HighScoreStore store = new HighScoreStore(temp)) {
+                if (!entries.isEmpty()) {
+                    store.addAll(entries);
+                }
+                store.force();
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Adds a score at the end of the file, and to the best scores if it is
+     * one of them.
+     *
+     * @param name  the name of the player
+     * @param score the score
+     * @throws IOException if the file cannot be written
+     */
+    public void add(String name, int score) throws IOException {
+        addAll(List.of(new Entry(name, score)));
+    }
+
+    /**
+     * Adds scores at the end of the file with a single write, and to the
+     * best scores if they are among them.
+     *
+     * @param entries the scores, in the order to add them
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void addAll(List<Entry> entries) throws IOException {
+        int count = getRecordCount();
+
+        ByteBuffer records = entries.size() == 1 ? record : ByteBuffer.allocate(entries.size() * RECORD_SIZE);
+        records.clear();
+        for (Entry entry : entries) {
+            putRecord(records, entry.name, entry.score);
+        }
+        records.flip();
+
+        // Write the records first, so the count never covers a missing record
+        long position = HEADER_SIZE + (long) count * RECORD_SIZE;
+        while (records.hasRemaining()) {
+            position += channel.write(records, position);
+        }
+
+        for (Entry entry : entries) {
+            insertTop(entry.name, entry.score);
+        }
+        header.putInt(COUNT_OFFSET, count + entries.size());
+    }
+
+    /**
+     * Writes the records and the header to disk.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void force() throws IOException {
+        channel.force(false);
+        header.force();
+    }
+
+    /**
+     * @return the best score, or 0 if there are none
+     */
+    public synchronized int getHighScore() {
+        if (header.getInt(TOP_SIZE_OFFSET) == 0) {
+            return 0;
+        }
+        return header.getInt(TOP_OFFSET);
+    }
+
+    /**
+     * @return the amount of scores in the file
+     */
+    public synchronized int getRecordCount() {
+        return header.getInt(COUNT_OFFSET);
+    }
+
+    /**
+     * @return the best scores, from best to worst. At most {@link #TOP_COUNT}.
+     */
+    public synchronized List<Entry> getTopScores() {
+        int size = header.getInt(TOP_SIZE_OFFSET);
+        List<Entry> top = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ByteBuffer slot = header.duplicate();
+            slot.position(TOP_OFFSET + i * RECORD_SIZE);
+            top.add(getRecord(slot));
+        }
+        return top;
+    }
+
+    /**
+     * Reads a score from the file.
+     *
+     * @param index the index of the score, in the order they were added
+     * @return the score
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized Entry getRecord(int index) throws IOException {
+        if (index < 0 || index >= getRecordCount()) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + getRecordCount());
+        }
+
+        record.clear();
+        long position = HEADER_SIZE + (long) index * RECORD_SIZE;
+        while (record.hasRemaining()) {
+            int read = channel.read(record, position);
+            if (read < 0) {
+                throw new IOException("Score file is truncated");
+            }
+            position += read;
+        }
+        record.flip();
+        return getRecord(record);
+    }
+
+    /**
+     * Writes the header to disk and closes the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            header.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Puts a score into the best scores of the header, if it is one of them.
+     * A new score goes after the equal scores already there.
+     */
+    private void insertTop(String name, int score) {
+        int size = header.getInt(TOP_SIZE_OFFSET);
+
+        int index = size;
+        while (index > 0 && header.getInt(TOP_OFFSET + (index - 1) * RECORD_SIZE) < score) {
+            index--;
+        }
+        if (index >= TOP_COUNT) {
+            return;
+        }
+
+        // Shift the worse scores down, dropping the last one if full
+        int last = Math.min(size, TOP_COUNT - 1);
+        for (int i = last; i > index; i--) {
+            for (int b = 0; b < RECORD_SIZE; b++) {
+                int to = TOP_OFFSET + i * RECORD_SIZE + b;
+                header.put(to, header.get(to - RECORD_SIZE));
+            }
+        }
+
+        ByteBuffer slot = header.duplicate();
+        slot.position(TOP_OFFSET + index * RECORD_SIZE);
+        putRecord(slot, name, score);
+        header.putInt(TOP_SIZE_OFFSET, Math.min(size + 1, TOP_COUNT));
+    }
+
+    /**
+     * Writes a record at the position of a buffer.
+     */
+    private static void putRecord(ByteBuffer buffer, String name, int score) {
+        byte[] nameBytes = encodeName(name);
+        buffer.putInt(score);
+        buffer.put(nameBytes);
+        for (int i = nameBytes.length; i < NAME_BYTES; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Reads a record at the position of a buffer.
+     */
+    private static Entry getRecord(ByteBuffer buffer) {
+        int score = buffer.getInt();
+        byte[] nameBytes = new byte[NAME_BYTES];
+        buffer.get(nameBytes);
+
+        int length = 0;
+        while (length < NAME_BYTES && nameBytes[length] != 0) {
+            length++;
+        }
+        return new Entry(new String(nameBytes, 0, length, StandardCharsets.UTF_8), score);
+    }
+
+    /**
+     * @return the name in UTF-8, cut off at a whole character to fit
+     */
+    private static byte[] encodeName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        while (bytes.length > NAME_BYTES) {
+            name = name.substring(0, name.offsetByCodePoints(name.length(), -1));
+            bytes = name.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+}
@@ -1,7 +1,7 @@
 package asteroids.utils;
 
 import java.util.function.Consumer;
-import javax.swing.JComponent;
+import java.awt.Component;
 
 import asteroids.utils.MyKeyListener.KeyOp;
 
@@ -32,8 +32,8 @@ public class InputHandler {
         this.myKeyListener.setMapping(key, f, keyOp);
     }
 
-    public void registerToComponent(JComponent component) {
+    public void registerToComponent(Component component) {
         component.addKeyListener(this.myKeyListener.trueListener);
-        System.out.println("listener added");
+        Log.debug("listener added");
     }
 }
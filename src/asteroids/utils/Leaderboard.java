@@ -0,0 +1,247 @@
+package asteroids.utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The best score of every player, ranked.
+ *
+ * <p>The best scores are kept in an array sorted from best to worst, with
+ * the names in a second array, and a map from each name to its best score.
+ * So the best players are the start of the array, and the rank of any score
+ * is found by binary search in O(log n). Adding a score that beats the
+ * player's best moves the player in the array, which shifts the players in
+ * between.
+ *
+ * <p>The leaderboard can be written in a compact binary form, already
+ * sorted, so it loads without going through every score ever added. It
+ * also remembers how many scores it has seen, so a saved leaderboard can
+ * be brought up to date with just the scores added after it was saved.
+ */
+public class Leaderboard {
+
+    // Start of the binary form
+    private static final int MAGIC = 0x4153544C; // "ASTL"
+
+    // Best scores from best to worst, and the names of their players.
+    // Only the first `size` are in use.
+    private int[] scores;
+    private String[] names;
+    private int size = 0;
+
+    // The best score of each player
+    private final Map<String, Integer> bestByName = new HashMap<>();
+
+    // How many scores were added, including the ones that were not a best
+    private long recordCount = 0;
+
+    /**
+     * Creates an empty leaderboard.
+     */
+    public Leaderboard() {
+        this(16);
+    }
+
+    private Leaderboard(int capacity) {
+        scores = new int[Math.max(capacity, 1)];
+        names = new String[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Adds the score of a game. Equal scores rank in the order they were
+     * added.
+     *
+     * @param name  the name of the player
+     * @param score the score
+     * @return whether the score is a new best for the player
+     */
+    public synchronized boolean add(String name, int score) {
+        recordCount++;
+
+        Integer best = bestByName.get(name);
+        if (best != null) {
+            if (best >= score) {
+                return false;
+            }
+            removeAt(indexOf(name, best));
+        }
+
+        insertAt(firstIndexBelow(score), name, score);
+        bestByName.put(name, score);
+        return true;
+    }
+
+    /**
+     * @param name the name of the player
+     * @return the best score of the player, or null if they have none
+     */
+    public synchronized Integer getBest(String name) {
+        return bestByName.get(name);
+    }
+
+    /**
+     * Returns the rank a score would have: one more than the amount of
+     * players with a better best score.
+     *
+     * @param score the score
+     * @return the rank, starting from 1
+     */
+    public synchronized int getRank(int score) {
+        // Players with an equal score share the rank
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (scores[middle] > score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low + 1;
+    }
+
+    /**
+     * @return the best score of all players, or 0 if there are none
+     */
+    public synchronized int getHighScore() {
+        return size == 0 ? 0 : scores[0];
+    }
+
+    /**
+     * @param count the most players to return
+     * @return the best players with their best scores, from best to worst
+     */
+    public synchronized List<HighScoreStore.Entry> getTop(int count) {
+        int n = Math.min(count, size);
+        List<HighScoreStore.Entry> top = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            top.add(new HighScoreStore.Entry(names[i], scores[i]));
+        }
+        return top;
+    }
+
+    /**
+     * @return the amount of players
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the amount of scores added, including the ones that were not a best
+     */
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Writes the leaderboard in its binary form: the record count and the
+     * players from best to worst.
+     *
+     * @param out the stream to write to. It is not closed.
+     * @throws IOException if the stream cannot be written
+     */
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeLong(recordCount);
+        data.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            data.writeInt(scores[i]);
+            data.writeUTF(names[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a leaderboard written by {@link #writeTo}. The players are
+     * already sorted, so nothing is sorted again.
+     *
+     * @param in the stream to read from. It is not closed.
+     * @return the leaderboard
+     * @throws IOException if the stream cannot be read or is not a leaderboard
+     */
+    public static Leaderboard readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a leaderboard");
+        }
+        long recordCount = data.readLong();
+        int size = data.readInt();
+        if (size < 0) {
+            throw new IOException("Not a leaderboard");
+        }
+
+        Leaderboard leaderboard = new Leaderboard(size);
+        for (int i = 0; i < size; i++) {
+            int score = data.readInt();
+            String name = data.readUTF();
+            if (i > 0 && score > leaderboard.scores[i - 1]
+                    || leaderboard.bestByName.put(name, score) != null) {
+                throw new IOException("Leaderboard is not sorted");
+            }
+            leaderboard.scores[i] = score;
+            leaderboard.names[i] = name;
+        }
+        leaderboard.size = size;
+        leaderboard.recordCount = recordCount;
+        return leaderboard;
+    }
+
+    /**
+     * @return the index of the first best score lower than the score
+     */
+    private int firstIndexBelow(int score) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (scores[middle] >= score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the index of a player with a best score
+     */
+    private int indexOf(String name, int score) {
+        // Search back from the end of the equal scores
+        int index = firstIndexBelow(score) - 1;
+        while (!names[index].equals(name)) {
+            index--;
+        }
+        return index;
+    }
+
+    private void insertAt(int index, String name, int score) {
+        if (size == scores.length) {
+            scores = Arrays.copyOf(scores, size * 2);
+            names = Arrays.copyOf(names, size * 2);
+        }
+        System.arraycopy(scores, index, scores, index + 1, size - index);
+        System.arraycopy(names, index, names, index + 1, size - index);
+        scores[index] = score;
+        names[index] = name;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(scores, index + 1, scores, index, size - index - 1);
+        System.arraycopy(names, index + 1, names, index, size - index - 1);
+        size--;
+        names[size] = null;
+    }
+}
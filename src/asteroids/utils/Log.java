@@ -0,0 +1,121 @@
+package asteroids.utils;
+
+import asteroids.utils.Logger.Level;
+
+/**
+ * A series of static methods that log to the console through one
+ * {@link Logger}, so that logging does not block the game or the UI.
+ *
+ * <p>The level is chosen with <code>-Dasteroids.log=debug</code> (or info,
+ * warn, error, off), and is info by default. Messages are templates with a
+ * <code>{}</code> for each argument, e.g.
+ * <code>Log.debug("decreaseLives {}", lives)</code>, so nothing is
+ * formatted for a level that is off. Waiting messages are written when the
+ * program exits.
+ */
+public class Log {
+
+    // The most messages waiting to be written
+    private static final int CAPACITY = 1024;
+
+    // Writes every message
+    private static final Logger logger = new Logger(System.out, CAPACITY,
+            parseLevel(System.getProperty("asteroids.log")));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(logger::close));
+    }
+
+    private Log() {
+    }
+
+    /**
+     * @param name the name of a level in any case, or null
+     * @return the level, or info if there is no such level
+     */
+    static Level parseLevel(String name) {
+        if (name != null) {
+            for (Level level : Level.values()) {
+                if (level.name().equalsIgnoreCase(name)) {
+                    return level;
+                }
+            }
+        }
+        return Level.INFO;
+    }
+
+    /**
+     * @return the logger the methods log to
+     */
+    public static Logger getLogger() {
+        return logger;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return logger.isEnabled(level);
+    }
+
+    public static void debug(String message) {
+        logger.log(Level.DEBUG, message, null, null, 0, -1);
+    }
+
+    public static void debug(String template, Object argument) {
+        logger.log(Level.DEBUG, template, argument, null, 0, -1);
+    }
+
+    public static void debug(String template, long number) {
+        logger.log(Level.DEBUG, template, null, null, number, 0);
+    }
+
+    public static void debug(String template, Object argument, long number) {
+        logger.log(Level.DEBUG, template, argument, null, number, 1);
+    }
+
+    public static void debug(String template, Object first, Object second) {
+        logger.log(Level.DEBUG, template, first, second, 0, -1);
+    }
+
+    public static void info(String message) {
+        logger.log(Level.INFO, message, null, null, 0, -1);
+    }
+
+    public static void info(String template, Object argument) {
+        logger.log(Level.INFO, template, argument, null, 0, -1);
+    }
+
+    public static void info(String template, long number) {
+        logger.log(Level.INFO, template, null, null, number, 0);
+    }
+
+    public static void info(String template, Object argument, long number) {
+        logger.log(Level.INFO, template, argument, null, number, 1);
+    }
+
+    public static void info(String template, Object first, Object second) {
+        logger.log(Level.INFO, template, first, second, 0, -1);
+    }
+
+    public static void warn(String message) {
+        logger.log(Level.WARN, message, null, null, 0, -1);
+    }
+
+    public static void warn(String template, Object argument) {
+        logger.log(Level.WARN, template, argument, null, 0, -1);
+    }
+
+    public static void warn(String template, Object first, Object second) {
+        logger.log(Level.WARN, template, first, second, 0, -1);
+    }
+
+    public static void error(String message) {
+        logger.log(Level.ERROR, message, null, null, 0, -1);
+    }
+
+    public static void error(String template, Object argument) {
+        logger.log(Level.ERROR, template, argument, null, 0, -1);
+    }
+
+    public static void error(String template, Object first, Object second) {
+        logger.log(Level.ERROR, template, first, second, 0, -1);
+    }
+}
@@ -0,0 +1,357 @@
+package asteroids.utils;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes log messages on a background thread, so logging never blocks the
+ * thread that logs on the console.
+ *
+ * <p>A message is a template with <code>{}</code> placeholders and up to
+ * two arguments. Logging only copies the template and the arguments into a
+ * slot of a ring of preallocated slots. The drain thread takes the
+ * messages out in order, formats them and writes them. A message below the
+ * logger's level returns before touching anything, and a number argument is
+ * kept as a long, so it is not even boxed.
+ *
+ * <p>Any thread may log. Each slot has a sequence number: a thread claims
+ * the next slot by moving the tail forward, fills it, and publishes it by
+ * setting its sequence. The drain thread frees the slot the same way. If
+ * the drain thread falls a whole ring behind, new messages are dropped and
+ * counted instead of waiting, and the drain thread writes how many were
+ * dropped once it catches up.
+ */
+public class Logger implements AutoCloseable {
+
+    /**
+     * The importance of a message. A logger writes the messages of its
+     * level and above.
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    /**
+     * A message waiting in the ring.
+     */
+    private static class Slot {
+        // The position this slot is ready for: its position to be filled,
+        // one more than that once it is filled
+        volatile long sequence;
+
+        Level level;
+        long timeMillis;
+        String threadName;
+        String template;
+        Object first;
+        Object second;
+        long number;
+
+        // Which placeholder the number fills, or -1
+        int numberIndex;
+    }
+
+    // How long the drain thread sleeps when there is nothing to write
+    private static final long IDLE_NANOS = 5_000_000L;
+
+    // How long closing waits for messages that are claimed but not yet
+    // published
+    private static final long CLOSE_WAIT_NANOS = 100_000_000L;
+
+    // Where the messages are written
+    private final PrintStream out;
+
+    // The least important level written
+    private volatile Level level;
+
+    // The messages, used as a ring. The capacity is a power of two.
+    private final Slot[] slots;
+    private final int mask;
+
+    // The next position to claim, moved by the logging threads
+    private final AtomicLong tail = new AtomicLong();
+
+    // The next position to write, moved only by the drain thread
+    private volatile long head = 0;
+
+    // The amount of messages dropped because the ring was full
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Formats the messages. Only the drain thread uses it.
+    private final StringBuilder line = new StringBuilder(256);
+
+    // Writes the messages, or null once closed
+    private volatile Thread drainThread;
+
+    /**
+     * Creates a logger and starts its drain thread.
+     *
+     * @param out      where to write the messages
+     * @param capacity the most messages waiting. Rounded up to a power of two.
+     * @param level    the least important level to write
+     */
+    public Logger(PrintStream out, int capacity, Level level) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            slots[i].sequence = i;
+        }
+        mask = size - 1;
+
+        this.out = out;
+        this.level = level;
+
+        Thread thread = new Thread(this::drain, "log-drain");
+        thread.setDaemon(true);
+        drainThread = thread;
+        thread.start();
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    /**
+     * @param messageLevel the level of a message
+     * @return whether messages of the level are written
+     */
+    public boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && messageLevel != Level.OFF;
+    }
+
+    /**
+     * @return the amount of messages that did not fit in the ring
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Logs a message.
+     *
+     * @param messageLevel the level of the message
+     * @param template     the message, with a <code>{}</code> for each argument
+     * @param first        the first argument, or null
+     * @param second       the second argument, or null
+     * @param number       a number argument
+     * @param numberIndex  which placeholder the number fills, or -1 for none
+     */
+    public void log(Level messageLevel, String template, Object first, Object second, long number, int numberIndex) {
+        if (!isEnabled(messageLevel)) {
+            return;
+        }
+        if (drainThread == null) {
+            // Closed, so write right away, after any messages still waiting
+            synchronized (line) {
+                drainAvailableLocked();
+                writeLine(messageLevel, System.currentTimeMillis(), Thread.currentThread().getName(),
+                        template, first, second, number, numberIndex);
+            }
+            return;
+        }
+
+        // Claim a slot
+        Slot slot;
+        long position;
+        while (true) {
+            position = tail.get();
+            slot = slots[(int) position & mask];
+            long sequence = slot.sequence;
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                // The drain thread has not freed this slot yet
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+
+        slot.level = messageLevel;
+        slot.timeMillis = System.currentTimeMillis();
+        slot.threadName = Thread.currentThread().getName();
+        slot.template = template;
+        slot.first = first;
+        slot.second = second;
+        slot.number = number;
+        slot.numberIndex = numberIndex;
+
+        // Publish the message to the drain thread
+        slot.sequence = position + 1;
+
+        // If closed meanwhile, the drain thread may have exited before this
+        // message was published, so write it here
+        if (drainThread == null) {
+            drainAvailable();
+        }
+    }
+
+    /**
+     * Waits until every message logged before this call is written.
+     */
+    public void flush() {
+        long until = tail.get();
+        while (head < until && drainThread != null) {
+            LockSupport.unpark(drainThread);
+            LockSupport.parkNanos(100_000L);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the waiting messages and stops the drain thread. Messages
+     * logged afterwards are written right away by the thread logging them.
+     */
+    @Override
+    public void close() {
+        Thread thread = drainThread;
+        if (thread == null) {
+            return;
+        }
+        drainThread = null;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.flush();
+    }
+
+    /**
+     * Takes the messages out of the ring and writes them, until closed.
+     * When closed, it first waits a little for messages that threads have
+     * claimed a slot for but not published yet.
+     */
+    private void drain() {
+        long reported = 0;
+        long closeDeadline = 0;
+        while (true) {
+            boolean closing = drainThread == null;
+            boolean any = drainAvailable();
+            reported = reportDropped(reported);
+            if (any) {
+                continue;
+            }
+            if (closing) {
+                if (head == tail.get()) {
+                    return;
+                }
+                if (closeDeadline == 0) {
+                    closeDeadline = System.nanoTime() + CLOSE_WAIT_NANOS;
+                } else if (System.nanoTime() - closeDeadline > 0) {
+                    return;
+                }
+                LockSupport.parkNanos(100_000L);
+            } else {
+                out.flush();
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Writes how many messages were dropped since the last report, if any.
+     *
+     * @param reported the amount of dropped messages already reported
+     * @return the amount of dropped messages reported now
+     */
+    private long reportDropped(long reported) {
+        long count = dropped.get();
+        if (count > reported) {
+            synchronized (line) {
+                writeLine(Level.WARN, System.currentTimeMillis(), Thread.currentThread().getName(),
+                        "{} messages dropped", null, null, count - reported, 0);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the messages published so far.
+     *
+     * @return whether there were any
+     */
+    private boolean drainAvailable() {
+        // Normally only the drain thread writes, but after closing a logging
+        // thread may too
+        synchronized (line) {
+            return drainAvailableLocked();
+        }
+    }
+
+    private boolean drainAvailableLocked() {
+        long position = head;
+        boolean any = false;
+        while (true) {
+            Slot slot = slots[(int) position & mask];
+            if (slot.sequence != position + 1) {
+                break;
+            }
+            writeLine(slot.level, slot.timeMillis, slot.threadName, slot.template,
+                    slot.first, slot.second, slot.number, slot.numberIndex);
+
+            // Free the slot for the position one ring later
+            slot.threadName = null;
+            slot.template = null;
+            slot.first = null;
+            slot.second = null;
+            slot.sequence = position + slots.length;
+            position++;
+            head = position;
+            any = true;
+        }
+        return any;
+    }
+
+    /**
+     * Formats one message as <code>time LEVEL [thread] message</code> and
+     * writes it.
+     */
+    private void writeLine(Level messageLevel, long timeMillis, String threadName, String template,
+            Object first, Object second, long number, int numberIndex) {
+        line.setLength(0);
+        line.append(LocalTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault()))
+                .append(' ').append(messageLevel)
+                .append(" [").append(threadName).append("] ");
+
+        // Fill the placeholders with the arguments in order
+        int argument = 0;
+        int objects = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf("{}", start)) >= 0) {
+            line.append(template, start, placeholder);
+            if (argument == numberIndex) {
+                line.append(number);
+            } else if (objects == 0) {
+                line.append(first);
+                objects++;
+            } else {
+                line.append(second);
+                objects++;
+            }
+            argument++;
+            start = placeholder + 2;
+        }
+        line.append(template, start, template.length());
+
+        out.println(line);
+    }
+}
@@ -2,8 +2,6 @@ package asteroids.utils;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -11,72 +9,48 @@ import java.util.function.Consumer;
  */
 public class MyKeyListener {
 
-    KeyListener trueListener;
+    // The amount of key operations, the stride of the binding table
+    private static final int OP_COUNT = KeyOp.values().length;
 
     /**
-     * Notice this hashmap is nested hashmap. 
-     * <p>Outside layer: KeyCode to hashmap.
-     * <p>Inside layer: KeyOp to function.
+     * The one Java key listener, which reads the binding table on every
+     * event. So bindings changed after it was added to a component still
+     * take effect.
+     */
+    final KeyListener trueListener;
+
+    /**
+     * The function bound to each key code and key operation, at index
+     * <code>keyCode * OP_COUNT + keyOp.ordinal()</code>, or null.
      * <p>To understand it, lets assume we want
      * to bind the (1) key release (2) key 'a'
      * to (3) ship.rotate()
      * <p>- Then when we do put:
-     * <p><code>Map&#60KeyOp, Consumer<Void>> m = keyEventBinding.get(keyCode of 'a');</code>
-     * <p><code>m.put(KeyOp.Release, (Void) -> ship.rotate());</code>
+     * <p><code>keyEventBinding[VK_A * OP_COUNT + KeyOp.Release.ordinal()] = (Void) -> ship.rotate();</code>
      * <p>- When we do get:
-     * <p><code>Map&#60KeyOp, Consumer<Void>> m = keyEventBinding.get(keyCode of 'a');</code>
-     * <p><code>Consumer<Void> shipRotateFunc = m.get(KeyOp.Release);</code>
+     * <p><code>Consumer<Void> shipRotateFunc = keyEventBinding[VK_A * OP_COUNT + KeyOp.Release.ordinal()];</code>
+     * <p>The table grows to fit the largest key code bound. It is replaced
+     * rather than changed in place when it grows, and written again after
+     * every change, so the event thread always sees the latest bindings.
      */
-    Map<Integer, Map<KeyOp, Consumer<Void>>> keyEventBinding;
+    private volatile Consumer<Void>[] keyEventBinding;
 
     public MyKeyListener() {
-        this.keyEventBinding = new HashMap<>();
+        this.keyEventBinding = newTable(KeyEvent.VK_DELETE + 1);
         this.trueListener = new KeyListener() {
             @Override
             public void keyTyped(KeyEvent e) {
+                dispatch(e.getKeyCode(), KeyOp.Type);
             }
 
             @Override
             public void keyPressed(KeyEvent e) {
+                dispatch(e.getKeyCode(), KeyOp.Press);
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
-            }
-        };
-    }
-
-    /**
-     * Update all key binding by read from the <code>Map<..> keyEventBinding</code>
-     * <p>by create a new Java key listener and put inside functions from the map.
-     */
-    public void refreshKeyBinding() {
-        this.trueListener = new KeyListener() {
-            @Override
-            public void keyTyped(KeyEvent e) {
-                int keyCode = e.getKeyCode();
-                var f = getFromBinding(keyCode, KeyOp.Type);
-                if (f != null) {
-                    f.accept(null);
-                }
-            }
-
-            @Override
-            public void keyPressed(KeyEvent e) {
-                int keyCode = e.getKeyCode();                
-                var f = getFromBinding(keyCode, KeyOp.Press);
-                if (f != null) {
-                    f.accept(null);
-                }
-            }
-
-            @Override
-            public void keyReleased(KeyEvent e) {
-                int keyCode = e.getKeyCode();
-                var f = getFromBinding(keyCode, KeyOp.Release);
-                if (f != null) {
-                    f.accept(null);
-                }
+                dispatch(e.getKeyCode(), KeyOp.Release);
             }
         };
     }
@@ -94,24 +68,51 @@ public class MyKeyListener {
         setMapping(keyCode, f, keyOp);
     }
 
-    public void setMapping(int keyCode, Consumer<Void> f, MyKeyListener.KeyOp keyOp) {
-        System.out.println("[setMapping] keyCode " + keyCode);
-
-        keyEventBinding.computeIfAbsent(keyCode, k -> new HashMap<>());
-        keyEventBinding.get(keyCode).put(keyOp, f);
-        refreshKeyBinding();
+    public synchronized void setMapping(int keyCode, Consumer<Void> f, MyKeyListener.KeyOp keyOp) {
+        Log.debug("[setMapping] keyCode {}", keyCode);
+        if (keyCode < 0) {
+            throw new IllegalArgumentException("Invalid key code " + keyCode);
+        }
+
+        Consumer<Void>[] table = keyEventBinding;
+        int index = keyCode * OP_COUNT + keyOp.ordinal();
+        if (index >= table.length) {
+            Consumer<Void>[] grown = newTable(keyCode + 1);
+            System.arraycopy(table, 0, grown, 0, table.length);
+            table = grown;
+        }
+        table[index] = f;
+
+        // Publish the change to the event thread
+        keyEventBinding = table;
     }
 
     /**
+     * Runs the function bound to a key code and key operation, if any.
+     * Does not allocate.
+     * 
      * @param keyCode
      * @param keyOp
-     * @return the function bind to that keyCode and keyOp
      */
-    private Consumer<Void> getFromBinding(int keyCode, KeyOp keyOp) {
-        var m = keyEventBinding.get(keyCode);
-        if (m == null) return null;
-        var f = m.get(keyOp);
-        return f;
+    private void dispatch(int keyCode, KeyOp keyOp) {
+        Consumer<Void>[] table = keyEventBinding;
+        int index = keyCode * OP_COUNT + keyOp.ordinal();
+        if (keyCode < 0 || index >= table.length) {
+            return;
+        }
+        Consumer<Void> f = table[index];
+        if (f != null) {
+            f.accept(null);
+        }
+    }
+
+    /**
+     * @param keyCount the amount of key codes to make room for
+     * @return an empty binding table
+     */
+    @SuppressWarnings("unchecked")
+    private static Consumer<Void>[] newTable(int keyCount) {
+        return (Consumer<Void>[]) new Consumer<?>[keyCount * OP_COUNT];
     }
 
 }
@@ -0,0 +1,322 @@
+package asteroids.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Writes scores to a {@link HighScoreStore} on a background thread.
+ *
+ * <p>Submitting a score only puts it in a bounded queue. The writer thread
+ * collects the queued scores into batches and adds each batch with a
+ * single write, once the batch is full or the oldest score in it has waited
+ * for the flush interval. So the game never waits for the disk, and many
+ * scores arriving together cost one write instead of one each.
+ *
+ * <p>When the queue is full, submitting waits until the writer has made
+ * room, so no score is lost.
+ */
+public class ScoreWriter implements AutoCloseable {
+
+    // Default amount of queued scores, scores per batch, and milliseconds a
+    // score waits for its batch to fill
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 500;
+
+    /**
+     * A queued score, a request to write everything before it, or the
+     * request to stop.
+     */
+    private static class Request {
+        final HighScoreStore.Entry entry;
+        final CountDownLatch written;
+
+        Request(HighScoreStore.Entry entry, CountDownLatch written) {
+            this.entry = entry;
+            this.written = written;
+        }
+    }
+
+    // Queued by close to stop the writer thread
+    private static final Request STOP = new Request(null, null);
+
+    // The file the scores are written to
+    private final HighScoreStore store;
+
+    // The most scores written at once
+    private final int batchSize;
+
+    // The most milliseconds a score waits for its batch to fill
+    private final long flushIntervalMillis;
+
+    // The scores waiting to be written
+    private final BlockingQueue<Request> queue;
+
+    // The thread writing the scores
+    private final Thread writerThread;
+
+    // Set when closed, after which no scores are accepted
+    private volatile boolean closed = false;
+
+    // Held shared to queue a request and exclusively to close, so that
+    // nothing is queued after the request to stop
+    private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    // Metrics: the deepest the queue has been, scores written, batches written
+    // and writes that failed
+    private volatile int maxQueueDepth = 0;
+    private volatile long writtenCount = 0;
+    private volatile long batchCount = 0;
+    private volatile long errorCount = 0;
+
+    /**
+     * Creates a writer with the default capacity, batch size and flush
+     * interval, and starts its thread.
+     *
+     * @param store the file to write the scores to
+     */
+    public ScoreWriter(HighScoreStore store) {
+        this(store, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a writer and starts its thread.
+     *
+     * @param store               the file to write the scores to
+     * @param capacity            the most scores that can be queued
+     * @param batchSize           the most scores written at once
+     * @param flushIntervalMillis the most milliseconds a score waits for its batch to fill
+     */
+    public ScoreWriter(HighScoreStore store, int capacity, int batchSize, long flushIntervalMillis) {
+        if (capacity < 1 || batchSize < 1 || flushIntervalMillis < 0) {
+            throw new IllegalArgumentException("Invalid score writer settings");
+        }
+        this.store = store;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        writerThread = new Thread(this::run, "score-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues a score to be written. Waits if the queue is full.
+     *
+     * @param name  the name of the player
+     * @param score the score
+     * @throws IllegalStateException if the writer is closed
+     */
+    public void submit(String name, int score) {
+        enqueue(new Request(new HighScoreStore.Entry(name, score), null));
+
+        int depth = queue.size();
+        if (depth > maxQueueDepth) {
+            maxQueueDepth = depth;
+        }
+    }
+
+    /**
+     * Waits until every score submitted before this call is written to disk.
+     *
+     * @throws IllegalStateException if the writer is closed
+     */
+    public void flush() {
+        CountDownLatch written = new CountDownLatch(1);
+        enqueue(new Request(null, written));
+        awaitUninterruptibly(written);
+    }
+
+    /**
+     * Writes every submitted score and stops the writer thread. Does not
+     * close the store. Calling it again does nothing.
+     */
+    @Override
+    public synchronized void close() {
+        // Waits for requests being queued, which the writer thread still takes
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        // Not interrupted, since an interrupt would close the file channel
+        // during a write. Scores submitted while closing are still written.
+        putUninterruptibly(STOP);
+        boolean interrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the amount of scores waiting to be written
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the most scores that have been waiting at once
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * @return the amount of scores written
+     */
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    /**
+     * @return the amount of writes the scores were written with
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * @return the amount of batches that could not be written
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    private void enqueue(Request request) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Score writer is closed");
+            }
+            putUninterruptibly(request);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    private void putUninterruptibly(Request request) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(request);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The loop of the writer thread.
+     */
+    private void run() {
+        List<HighScoreStore.Entry> batch = new ArrayList<>(batchSize);
+        List<CountDownLatch> flushed = new ArrayList<>();
+        boolean running = true;
+
+        while (running) {
+            try {
+                // Wait for the first score of a batch
+                Request request = queue.take();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+
+                // Collect scores until the batch is full, the interval has
+                // passed, or a flush or stop is requested
+                while (request != null) {
+                    if (request == STOP) {
+                        running = false;
+                        break;
+                    }
+                    if (request.entry == null) {
+                        flushed.add(request.written);
+                        break;
+                    }
+                    batch.add(request.entry);
+                    if (batch.size() >= batchSize) {
+                        break;
+                    }
+                    request = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                // Nobody interrupts this thread, write what was collected
+            }
+
+            if (!running) {
+                // Write anything still queued, and release every flush
+                List<Request> rest = new ArrayList<>();
+                queue.drainTo(rest);
+                for (Request request : rest) {
+                    if (request.entry != null) {
+                        batch.add(request.entry);
+                    } else if (request.written != null) {
+                        flushed.add(request.written);
+                    }
+                }
+            }
+
+            write(batch, !flushed.isEmpty() || !running);
+            batch.clear();
+            for (CountDownLatch latch : flushed) {
+                latch.countDown();
+            }
+            flushed.clear();
+        }
+    }
+
+    /**
+     * Writes a batch, and forces it to disk if asked.
+     */
+    private void write(List<HighScoreStore.Entry> batch, boolean force) {
+        try {
+            if (!batch.isEmpty()) {
+                store.addAll(batch);
+                writtenCount += batch.size();
+                batchCount++;
+            }
+            if (force) {
+                store.force();
+            }
+        } catch (IOException e) {
+            errorCount++;
+            Log.warn("An error occurred while writing the scores: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package asteroids.utils;
+
+/**
+ * A lookup table of sines for angles in degrees, quantized to
+ * {@link #STEPS} steps per full turn.
+ *
+ * <p>Looking up a value costs a multiplication and an array read instead of
+ * a call to {@link Math#sin(double)}. The price is accuracy: the angle is
+ * rounded to the nearest step, so the result is off by at most
+ * {@link #MAX_ERROR}.
+ */
+public final class TrigTable {
+
+    // The number of steps in a full turn. Must be a power of 2.
+    public static final int STEPS = 4096;
+
+    // The largest difference to the exact sine or cosine: half a step, in
+    // radians, since neither function changes faster than its angle.
+    public static final float MAX_ERROR = (float) (Math.PI / STEPS);
+
+    // The number of steps per degree.
+    private static final float STEPS_PER_DEGREE = STEPS / 360f;
+
+    // The sine of every step, with a quarter turn more at the end so that
+    // cosines can be read a quarter turn ahead.
+    private static final float[] sines = new float[STEPS + STEPS / 4];
+
+    static {
+        for (int i = 0; i < sines.length; i++) {
+            sines[i] = (float) Math.sin(2 * Math.PI * i / STEPS);
+        }
+    }
+
+    private TrigTable() {
+    }
+
+    /**
+     * @param degrees the angle in degrees, may be negative or above 360
+     * @return the sine of the angle, rounded to the nearest step
+     */
+    public static float sin(float degrees) {
+        return sines[Math.round(degrees * STEPS_PER_DEGREE) & (STEPS - 1)];
+    }
+
+    /**
+     * @param degrees the angle in degrees, may be negative or above 360
+     * @return the cosine of the angle, rounded to the nearest step
+     */
+    public static float cos(float degrees) {
+        return sines[(Math.round(degrees * STEPS_PER_DEGREE) & (STEPS - 1)) + STEPS / 4];
+    }
+}
@@ -0,0 +1,27 @@
+package asteroids;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so that every result also
+ * reports the allocation rate (gc.alloc.rate.norm is bytes per operation).
+ */
+public class BenchmarkMain {
+
+    /**
+     * @param args an optional regular expression selecting the benchmarks to
+     *             run, e.g. "GameBenchmark.nextFrame"
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "asteroids\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,171 @@
+package asteroids;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import asteroids.object.Asteroid;
+import asteroids.object.Bullet;
+import asteroids.simulation.HeadlessSimulation;
+
+/**
+ * Benchmarks a whole frame of the game: one tick of the simulation, and
+ * painting the game into an offscreen image.
+ *
+ * <p>The games are filled before they are measured, so the allocation rate
+ * reported by the GC profiler is that of the frame alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Djava.awt.headless=true")
+public class GameBenchmark {
+
+    private static final Dimension size = new Dimension(600, 600);
+
+    // The ticks run in one iteration of nextFrame, one second of the game
+    private static final int FRAMES_PER_ITERATION = 60;
+
+    // The iterations of nextFrame
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    /**
+     * Creates a game filled with asteroids and bullets. The asteroids keep
+     * away from the ship in the middle, so that the ship is not hit and the
+     * game is not reset during the frames.
+     */
+    private static HeadlessSimulation populate(int asteroidCount, int bulletCount) {
+        Random rand = new Random(42);
+        HeadlessSimulation simulation = new HeadlessSimulation(size, 60);
+        AsteroidsGame game = simulation.getGame();
+
+        game.getAsteroids().clear();
+        while (game.getAsteroids().size() < asteroidCount) {
+            float x = rand.nextFloat() * size.width;
+            float y = rand.nextFloat() * size.height;
+            if (Math.hypot(x - size.width / 2, y - size.height / 2) > 100) {
+                game.getAsteroids().add(new Asteroid(x, y, rand.nextFloat() * 360));
+            }
+        }
+
+        for (int i = 0; i < bulletCount; i++) {
+            game.getBullets().add(new Bullet(rand.nextFloat() * size.width,
+                    rand.nextFloat() * size.height, rand.nextFloat() * 360, 0));
+        }
+
+        game.publishFrame();
+        return simulation;
+    }
+
+    /**
+     * Fresh games for nextFrame. A frame changes the game (objects move, are
+     * hit and removed), so every iteration starts from an untouched game.
+     * All of them are filled before the first iteration, so filling them is
+     * not part of any measurement.
+     */
+    @State(Scope.Thread)
+    public static class FrameState {
+        @Param({ "10", "100", "1000" })
+        public int asteroidCount;
+
+        @Param({ "10", "100", "1000" })
+        public int bulletCount;
+
+        private HeadlessSimulation[] simulations;
+        private int next = 0;
+
+        HeadlessSimulation simulation;
+
+        @Setup(Level.Trial)
+        public void setUpGames() {
+            simulations = new HeadlessSimulation[WARMUP_ITERATIONS + MEASUREMENT_ITERATIONS];
+            for (int i = 0; i < simulations.length; i++) {
+                simulations[i] = populate(asteroidCount, bulletCount);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void nextGame() {
+            if (next < simulations.length) {
+                simulation = simulations[next];
+                simulations[next++] = null;
+            } else {
+                // More iterations than planned, e.g. set on the command line
+                simulation = populate(asteroidCount, bulletCount);
+            }
+        }
+    }
+
+    /**
+     * A game to paint. Painting does not change the game, so it is filled
+     * once. Its frame budget is pinned to full detail, so the benchmark
+     * keeps measuring the same drawing however slow painting gets.
+     */
+    @State(Scope.Thread)
+    public static class PaintState {
+        @Param({ "10", "100", "1000" })
+        public int asteroidCount;
+
+        @Param({ "10", "100", "1000" })
+        public int bulletCount;
+
+        AsteroidsGame game;
+        BufferedImage image;
+        Graphics2D g;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            game = populate(asteroidCount, bulletCount).getGame();
+            game.getFrameBudget().setBudgetNanos(Long.MAX_VALUE);
+            image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+            g = image.createGraphics();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Runs {@link #FRAMES_PER_ITERATION} ticks per iteration on a fresh game.
+     * JMH times the whole batch, which counts as {@link #FRAMES_PER_ITERATION}
+     * operations, so the score and the allocation per operation are those
+     * of one tick.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OperationsPerInvocation(FRAMES_PER_ITERATION)
+    @Warmup(iterations = WARMUP_ITERATIONS, batchSize = FRAMES_PER_ITERATION)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, batchSize = FRAMES_PER_ITERATION)
+    public AsteroidsGame nextFrame(FrameState state) {
+        AsteroidsGame game = state.simulation.getGame();
+        game.nextFrame(state.simulation);
+        return game;
+    }
+
+    @Benchmark
+    public BufferedImage paint(PaintState state) {
+        state.game.paint(state.g, 0.5f);
+        return state.image;
+    }
+}
@@ -0,0 +1,128 @@
+package asteroids.object;
+
+import java.awt.Dimension;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import asteroids.simulation.HeadlessSimulation;
+
+/**
+ * Benchmarks the per-object work done every frame: moving and wrapping,
+ * computing the world shape, and testing for collisions. Also benchmarks
+ * creating asteroids, which builds a new random outline each time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class GameObjectBenchmark {
+
+    private static final Dimension size = new Dimension(600, 600);
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int objectCount;
+
+    private HeadlessSimulation context;
+
+    private Asteroid[] asteroids;
+    private Bullet[] bullets;
+
+    // The same number of asteroids, in a shared store.
+    private EntityStore<Asteroid> store;
+
+    @Setup
+    public void setUp() {
+        Random rand = new Random(42);
+        context = new HeadlessSimulation(size, 60);
+
+        asteroids = new Asteroid[objectCount];
+        bullets = new Bullet[objectCount];
+
+        for (int i = 0; i < objectCount; i++) {
+            asteroids[i] = new Asteroid(rand.nextFloat() * size.width, rand.nextFloat() * size.height,
+                    rand.nextFloat() * 360);
+            bullets[i] = new Bullet(rand.nextFloat() * size.width, rand.nextFloat() * size.height,
+                    rand.nextFloat() * 360, 0);
+        }
+
+        store = new EntityStore<>(objectCount);
+        for (int i = 0; i < objectCount; i++) {
+            store.add(new Asteroid(rand.nextFloat() * size.width, rand.nextFloat() * size.height,
+                    rand.nextFloat() * 360));
+        }
+    }
+
+    @Benchmark
+    public void moveAndWrap() {
+        for (Asteroid asteroid : asteroids) {
+            asteroid.move(context);
+            asteroid.wrap(context);
+        }
+    }
+
+    /**
+     * Moves and wraps all objects of a store in one pass over its arrays.
+     */
+    @Benchmark
+    public EntityStore<Asteroid> moveAndWrapAll() {
+        store.moveAll(context);
+        store.wrapAll(context);
+        return store;
+    }
+
+    /**
+     * Rotates every object first, so that every world shape is recomputed.
+     */
+    @Benchmark
+    public void getShapeAfterRotate(Blackhole bh) {
+        for (Asteroid asteroid : asteroids) {
+            asteroid.rotate(1);
+            bh.consume(asteroid.getShape());
+        }
+    }
+
+    /**
+     * Nothing moves, so every world shape comes from the cache.
+     */
+    @Benchmark
+    public void getShapeCached(Blackhole bh) {
+        for (Asteroid asteroid : asteroids) {
+            bh.consume(asteroid.getShape());
+        }
+    }
+
+    /**
+     * Tests each bullet against one asteroid, like the narrow phase does for
+     * the pairs found by the collision system.
+     */
+    @Benchmark
+    public int collidesWith() {
+        int hits = 0;
+        for (int i = 0; i < objectCount; i++) {
+            if (bullets[i].collidesWith(asteroids[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public Asteroid createAsteroid() {
+        return new Asteroid(300, 300, 45);
+    }
+}
@@ -1,5 +1,50 @@
 package asteroids;
 
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Dimension;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import asteroids.simulation.HeadlessSimulation;
+import asteroids.simulation.InputPolicy;
+
 public class GameTest {
 
+    private static final Dimension SIZE = new Dimension(600, 600);
+
+    /**
+     * Plays a game with a bot that spins and shoots, and returns the most
+     * asteroids there were at once.
+     */
+    private static int playAndCountAsteroids(GameMode mode, int ticks) {
+        HeadlessSimulation simulation = new HeadlessSimulation(new AsteroidsGame(SIZE, 3, mode), SIZE, 60);
+        Random rand = new Random(3);
+        simulation.setInput(game -> game.applyInput(
+                InputPolicy.SPIN_AND_SHOOT.nextActions(game, simulation.getTick(), rand), 60));
+
+        int most = 0;
+        for (int i = 0; i < ticks && !simulation.getGame().isGameOver(); i++) {
+            simulation.step();
+            most = Math.max(most, simulation.getGame().getAsteroids().size());
+        }
+        return most;
+    }
+
+    @Test
+    void testClassicModeKeepsTheCap() {
+        int most = playAndCountAsteroids(GameMode.CLASSIC, 20_000);
+        assertTrue(most <= GameMode.CLASSIC.maxAsteroids, most + " asteroids");
+    }
+
+    @Test
+    void testSwarmModeHasThousandsOfAsteroids() {
+        AsteroidsGame game = new AsteroidsGame(SIZE, 3, GameMode.SWARM);
+        assertEquals(GameMode.SWARM.initialAsteroids, game.getAsteroids().size());
+
+        int most = playAndCountAsteroids(GameMode.SWARM, 600);
+        assertTrue(most >= GameMode.SWARM.initialAsteroids && most <= GameMode.SWARM.maxAsteroids,
+                most + " asteroids");
+    }
 }
@@ -0,0 +1,69 @@
+package asteroids.collision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import asteroids.object.Asteroid;
+import asteroids.object.Bullet;
+
+class CollisionSystemTest {
+
+    private static final int WIDTH = 600;
+    private static final int HEIGHT = 600;
+
+    private Random rand = new Random(42);
+
+    private Set<String> collisions(CollisionSystem system, List<Asteroid> asteroids, List<Bullet> bullets) {
+        Set<String> pairs = new HashSet<>();
+        system.detect(asteroids, bullets, WIDTH, HEIGHT, (ai, bi) -> {
+            // Every pair must only be reported once
+            assertTrue(pairs.add(ai + ":" + bi));
+        });
+        return pairs;
+    }
+
+    @Test
+    void testSameResultsAsBruteForce() {
+        List<Asteroid> asteroids = new ArrayList<>();
+        List<Bullet> bullets = new ArrayList<>();
+
+        // Include objects hanging over the edges of the world
+        for (int i = 0; i < 200; i++) {
+            asteroids.add(new Asteroid(rand.nextFloat() * (WIDTH + 80) - 40,
+                    rand.nextFloat() * (HEIGHT + 80) - 40));
+        }
+        for (int i = 0; i < 500; i++) {
+            bullets.add(new Bullet(rand.nextFloat() * WIDTH, rand.nextFloat() * HEIGHT, 0, 0));
+        }
+
+        Set<String> expected = collisions(new BruteForceCollisionSystem(), asteroids, bullets);
+        assertFalse(expected.isEmpty());
+
+        assertEquals(expected, collisions(new SpatialHashCollisionSystem(), asteroids, bullets));
+        assertEquals(expected, collisions(new SpatialHashCollisionSystem(16), asteroids, bullets));
+        assertEquals(expected, collisions(new SpatialHashCollisionSystem(1000), asteroids, bullets));
+    }
+
+    @Test
+    void testReusedBetweenFrames() {
+        SpatialHashCollisionSystem system = new SpatialHashCollisionSystem();
+
+        List<Asteroid> asteroids = new ArrayList<>();
+        asteroids.add(new Asteroid(100, 100));
+
+        List<Bullet> bullets = new ArrayList<>();
+        bullets.add(new Bullet(100, 100, 0, 0));
+        assertEquals(Set.of("0:0"), collisions(system, asteroids, bullets));
+
+        // The grid is rebuilt, so the old position must not be reported again
+        bullets.set(0, new Bullet(400, 400, 0, 0));
+        assertEquals(Set.of(), collisions(system, asteroids, bullets));
+    }
+}
@@ -0,0 +1,55 @@
+package asteroids.collision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class PolygonsTest {
+
+    // A 10x10 square at the origin
+    private float[] squareX = { 0, 10, 10, 0 };
+    private float[] squareY = { 0, 0, 10, 10 };
+
+    private static float[] offset(float[] coordinates, float amount) {
+        float[] result = new float[coordinates.length];
+        for (int i = 0; i < coordinates.length; i++) {
+            result[i] = coordinates[i] + amount;
+        }
+        return result;
+    }
+
+    @Test
+    void testOverlapping() {
+        assertTrue(Polygons.intersect(squareX, squareY, 4, offset(squareX, 5), offset(squareY, 5), 4));
+    }
+
+    @Test
+    void testApart() {
+        assertFalse(Polygons.intersect(squareX, squareY, 4, offset(squareX, 11), squareY, 4));
+    }
+
+    @Test
+    void testTouching() {
+        assertTrue(Polygons.intersect(squareX, squareY, 4, offset(squareX, 10), squareY, 4));
+    }
+
+    @Test
+    void testContained() {
+        float[] smallX = { 4, 6, 6, 4 };
+        float[] smallY = { 4, 4, 6, 6 };
+        assertTrue(Polygons.intersect(squareX, squareY, 4, smallX, smallY, 4));
+        assertTrue(Polygons.intersect(smallX, smallY, 4, squareX, squareY, 4));
+    }
+
+    @Test
+    void testConcaveNotch() {
+        // A U shape, with a small square inside the notch but not touching it
+        float[] uX = { 0, 30, 30, 20, 20, 10, 10, 0 };
+        float[] uY = { 0, 0, 30, 30, 10, 10, 30, 30 };
+        float[] smallX = { 12, 18, 18, 12 };
+        float[] smallY = { 15, 15, 25, 25 };
+
+        // The bounding boxes and the convex hulls overlap, the shapes do not
+        assertFalse(Polygons.intersect(uX, uY, 8, smallX, smallY, 4));
+    }
+}
@@ -0,0 +1,68 @@
+package asteroids.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+    @Test
+    void testBucketsCoverEveryValue() {
+        // Every value falls in a bucket whose range contains it, and the
+        // buckets are at most 1/32 of their values wide
+        long[] values = { 0, 1, 31, 32, 33, 63, 64, 1000, 123_456_789, Long.MAX_VALUE };
+        for (long value : values) {
+            int bucket = Histogram.bucketOf(value);
+            long highest = Histogram.highestValueOf(bucket);
+            long lowest = bucket == 0 ? 0 : Histogram.highestValueOf(bucket - 1) + 1;
+            assertTrue(lowest <= value && value <= highest, "value " + value);
+            assertTrue(highest - lowest <= Math.max(0, highest / Histogram.SUB_BUCKETS), "value " + value);
+        }
+    }
+
+    @Test
+    void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500, histogram.getMean(), 1e-6);
+        assertEquals(1_000_000, histogram.getMax());
+
+        // Within the width of a bucket
+        assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 / Histogram.SUB_BUCKETS);
+        assertEquals(990_000, histogram.getValueAtPercentile(99), 990_000 / Histogram.SUB_BUCKETS);
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testEmpty() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void testRegistryWritesEveryMetric() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.histogram("update").record(2000);
+        metrics.counter("dropped").add(3);
+        metrics.gauge("asteroids", () -> 7);
+
+        // Asking again gives the same metric
+        assertSame(metrics.histogram("update"), metrics.histogram("update"));
+
+        StringWriter text = new StringWriter();
+        metrics.writeTo(text);
+        String[] lines = text.toString().split(System.lineSeparator());
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("update: n 1,"), lines[0]);
+        assertEquals("dropped: 3", lines[1]);
+        assertEquals("asteroids: 7", lines[2]);
+    }
+}
@@ -0,0 +1,36 @@
+package asteroids.object;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BulletPoolTest {
+
+    private BulletPool pool = new BulletPool(2);
+
+    @Test
+    void testReusesReleasedBullets() {
+        Bullet bullet = pool.acquire(10, 20, 90, 0);
+        assertEquals(0, pool.getHits());
+        assertEquals(1, pool.getMisses());
+
+        bullet.isVisible = false;
+        pool.release(bullet);
+
+        // The released bullet is fired again from the new location
+        assertSame(bullet, pool.acquire(30, 40, 0, 0));
+        assertTrue(bullet.isVisible);
+        assertEquals(30, bullet.getX());
+        assertEquals(40, bullet.getY());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    void testCapacityIsBounded() {
+        for (int i = 0; i < 5; i++) {
+            pool.release(new Bullet(0, 0, 0, 0));
+        }
+        assertEquals(2, pool.size());
+    }
+}
@@ -0,0 +1,110 @@
+package asteroids.object;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import asteroids.simulation.SimulationContext;
+
+class EntityStoreTest {
+
+    private EntityStore<Bullet> store = new EntityStore<>(2);
+
+    private SimulationContext context = new SimulationContext() {
+        public int getWorldWidth() {
+            return 100;
+        }
+
+        public int getWorldHeight() {
+            return 100;
+        }
+
+        public float getTickDuration() {
+            return 0.1f;
+        }
+    };
+
+    @Test
+    void testAddKeepsState() {
+        Bullet a = new Bullet(10, 20, 90, 0);
+        Bullet b = new Bullet(30, 40, 90, 0);
+        Bullet c = new Bullet(50, 60, 90, 0);
+        store.add(a);
+        store.add(b);
+        store.add(c);
+
+        assertEquals(3, store.size());
+        assertEquals(30, b.getX());
+        assertEquals(40, b.getY());
+        assertEquals(100, b.getSpeed());
+    }
+
+    @Test
+    void testSwapRemove() {
+        Bullet a = new Bullet(10, 20, 90, 0);
+        Bullet b = new Bullet(30, 40, 90, 0);
+        Bullet c = new Bullet(50, 60, 90, 0);
+        store.add(a);
+        store.add(b);
+        store.add(c);
+
+        // The last object takes the freed slot
+        assertSame(a, store.remove(0));
+        assertSame(c, store.get(0));
+        assertSame(b, store.get(1));
+        assertEquals(50, c.getX());
+
+        // The removed object keeps its state on its own
+        assertEquals(10, a.getX());
+        a.rotate(10);
+        assertEquals(10, a.getRotation());
+        assertEquals(0, c.getRotation());
+    }
+
+    @Test
+    void testHomesAreReused() {
+        Bullet a = new Bullet(10, 20, 90, 0);
+        EntityStore<?> home = a.store;
+        store.add(a);
+
+        // The home a left is given to the next new object
+        Bullet b = new Bullet(30, 40, 90, 0);
+        assertSame(home, b.store);
+        assertEquals(30, b.getX());
+
+        // And taken back by an object leaving a shared store
+        store.add(b);
+        store.remove(0);
+        assertSame(home, a.store);
+        assertEquals(10, a.getX());
+        assertEquals(30, b.getX());
+    }
+
+    @Test
+    void testRemoveIfVisitsEveryObject() {
+        for (int i = 0; i < 10; i++) {
+            store.add(new Bullet(i, 0, 90, 0));
+        }
+
+        store.removeIf(b -> b.getX() % 2 == 0);
+
+        assertEquals(5, store.size());
+        for (Bullet bullet : store) {
+            assertEquals(1, bullet.getX() % 2);
+        }
+    }
+
+    @Test
+    void testMoveAndWrapAll() {
+        Bullet bullet = new Bullet(95, 50, 90, 0);
+        store.add(bullet);
+
+        // 100 pixels per second to the right, for a tenth of a second
+        store.moveAll(context);
+        assertEquals(105, bullet.getX(), 1e-3);
+        assertEquals(50, bullet.getY(), 1e-3);
+
+        store.wrapAll(context);
+        assertEquals(5, bullet.getX(), 1e-3);
+    }
+}
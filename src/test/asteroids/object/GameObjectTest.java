@@ -0,0 +1,53 @@
+package asteroids.object;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Polygon;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+
+import org.junit.jupiter.api.Test;
+
+class GameObjectTest {
+
+    private static final Shape triangle = new Polygon(
+            new int[] { -10, 0, 10 },
+            new int[] { 10, -15, 10 },
+            3);
+
+    private GameObject obj = new GameObject(100, 50, 30, triangle, Color.WHITE) {
+    };
+
+    private Rectangle2D expectedBounds(GameObject obj) {
+        AffineTransform at = new AffineTransform();
+        at.translate(obj.getX(), obj.getY());
+        at.rotate(Math.toRadians(obj.getRotation()));
+        return at.createTransformedShape(triangle).getBounds2D();
+    }
+
+    private void assertBounds(Rectangle2D expected, GameObject obj) {
+        assertEquals(expected.getMinX(), obj.getMinX(), 1e-3);
+        assertEquals(expected.getMinY(), obj.getMinY(), 1e-3);
+        assertEquals(expected.getMaxX(), obj.getMaxX(), 1e-3);
+        assertEquals(expected.getMaxY(), obj.getMaxY(), 1e-3);
+    }
+
+    @Test
+    void testShapeMatchesTransform() {
+        assertEquals(3, obj.getVertexCount());
+        assertBounds(expectedBounds(obj), obj);
+    }
+
+    @Test
+    void testShapeIsReused() {
+        Shape shape = obj.getShape();
+        assertSame(shape, obj.getShape());
+
+        // Rotating updates the cached shape in place
+        obj.rotate(45);
+        assertSame(shape, obj.getShape());
+        assertBounds(expectedBounds(obj), obj);
+    }
+}
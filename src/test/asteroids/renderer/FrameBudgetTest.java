@@ -0,0 +1,42 @@
+package asteroids.renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FrameBudgetTest {
+
+    @Test
+    void testLevelFollowsFrameTime() {
+        FrameBudget budget = new FrameBudget(1_000_000);
+        assertEquals(0, budget.getLevel());
+
+        // Over the budget, the level rises one step per settled period
+        for (int i = 0; i < 1000; i++) {
+            budget.record(3_000_000);
+        }
+        assertEquals(FrameBudget.MAX_LEVEL, budget.getLevel());
+
+        // Just under the budget, the level stays
+        for (int i = 0; i < 1000; i++) {
+            budget.record(800_000);
+        }
+        assertEquals(FrameBudget.MAX_LEVEL, budget.getLevel());
+
+        // Well under the budget, it goes back to full detail
+        for (int i = 0; i < 1000; i++) {
+            budget.record(100_000);
+        }
+        assertEquals(0, budget.getLevel());
+    }
+
+    @Test
+    void testLevelDoesNotChangeOnOneSlowFrame() {
+        FrameBudget budget = new FrameBudget(1_000_000);
+        for (int i = 0; i < 100; i++) {
+            budget.record(100_000);
+        }
+        budget.record(50_000_000);
+        assertEquals(0, budget.getLevel());
+    }
+}
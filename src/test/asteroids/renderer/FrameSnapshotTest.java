@@ -0,0 +1,52 @@
+package asteroids.renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+import asteroids.object.Asteroid;
+
+class FrameSnapshotTest {
+
+    private static FrameSnapshot snapshot() {
+        FrameSnapshot frame = new FrameSnapshot();
+        frame.setWorldSize(200, 200);
+        frame.add(new Asteroid(100, 100));
+        frame.add(new Asteroid(-500, 100));
+        frame.add(new Asteroid(100, 900));
+        return frame;
+    }
+
+    @Test
+    void testCullsOutsideWorldWithoutClip() {
+        BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            assertNull(g.getClip());
+
+            FrameSnapshot frame = snapshot();
+            frame.paint(g, 1, null, new BatchedLineRenderer());
+            assertEquals(2, frame.getLastCulled());
+        } finally {
+            g.dispose();
+        }
+    }
+
+    @Test
+    void testCullsOutsideClip() {
+        BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setClip(0, 0, 50, 50);
+
+            FrameSnapshot frame = snapshot();
+            frame.paint(g, 1, null, new BatchedLineRenderer());
+            assertEquals(3, frame.getLastCulled());
+        } finally {
+            g.dispose();
+        }
+    }
+}
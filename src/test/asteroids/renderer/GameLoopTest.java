@@ -0,0 +1,87 @@
+package asteroids.renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import asteroids.metrics.MetricsRegistry;
+
+class GameLoopTest {
+
+    // 20 ticks and 100 renders per second
+    private static final long TICK = 50_000_000L;
+    private static final long RENDER = 10_000_000L;
+
+    private int ticks = 0;
+    private final List<Float> alphas = new ArrayList<>();
+
+    private final GameLoop loop = new GameLoop(20, 100, new GameLoop.Frame() {
+        public void nextFrame() {
+            ticks++;
+        }
+
+        public void render(float alpha) {
+            alphas.add(alpha);
+        }
+    }, new MetricsRegistry());
+
+    /**
+     * Runs the loop for a second, both ends included, waking it exactly when
+     * it asks to be.
+     */
+    private void runOneSecond(long start) {
+        loop.begin(start);
+        long now = start;
+        while (now - start <= 1_000_000_000L) {
+            now += loop.step(now);
+        }
+    }
+
+    @Test
+    void testRendersBetweenTicks() {
+        runOneSecond(0);
+
+        assertEquals(20, ticks);
+        assertEquals(101, alphas.size());
+
+        // Renders are not tied to ticks, so they see the time between them
+        assertEquals(0f, alphas.get(0), 1e-6);
+        assertEquals(0.2f, alphas.get(1), 1e-6);
+        assertEquals(0.8f, alphas.get(4), 1e-6);
+        assertEquals(0f, alphas.get(5), 1e-6);
+    }
+
+    @Test
+    void testRendersOnTimeAfterStall() {
+        loop.begin(0);
+        loop.step(0);
+
+        // A stall of 3.5 ticks runs the missed ticks, and renders once
+        long untilDue = loop.step(3 * TICK + TICK / 2);
+        assertEquals(3, ticks);
+        assertEquals(2, alphas.size());
+        assertEquals(0.5f, alphas.get(1), 1e-6);
+        assertEquals(RENDER, untilDue);
+    }
+
+    @Test
+    void testDropsTimeAfterLongStall() {
+        loop.begin(0);
+        loop.step(10 * TICK);
+
+        assertEquals(GameLoop.MAX_CATCH_UP_TICKS, ticks);
+        assertEquals(0f, loop.getInterpolationAlpha(), 1e-6);
+        assertEquals(5, loop.getMetrics().counter("tick.dropped").get());
+    }
+
+    @Test
+    void testWorksAcrossNanoTimeOverflow() {
+        runOneSecond(Long.MAX_VALUE - 500_000_000L);
+
+        assertEquals(20, ticks);
+        assertEquals(101, alphas.size());
+    }
+}
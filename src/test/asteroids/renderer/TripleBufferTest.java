@@ -0,0 +1,39 @@
+package asteroids.renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class TripleBufferTest {
+
+    private TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[1]);
+
+    @Test
+    void testReadsLatestPublished() {
+        buffer.getWriteBuffer()[0] = 1;
+        buffer.publish();
+        buffer.getWriteBuffer()[0] = 2;
+        buffer.publish();
+
+        assertEquals(2, buffer.getReadBuffer()[0]);
+    }
+
+    @Test
+    void testKeepsBufferUntilNextPublish() {
+        buffer.getWriteBuffer()[0] = 1;
+        buffer.publish();
+
+        int[] front = buffer.getReadBuffer();
+        assertSame(front, buffer.getReadBuffer());
+
+        // The writer never gets the buffer the reader holds
+        for (int i = 0; i < 5; i++) {
+            assertNotSame(front, buffer.getWriteBuffer());
+            buffer.getWriteBuffer()[0] = 10 + i;
+            buffer.publish();
+            assertEquals(1, front[0]);
+        }
+
+        assertEquals(14, buffer.getReadBuffer()[0]);
+    }
+}
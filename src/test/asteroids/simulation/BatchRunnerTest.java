@@ -0,0 +1,43 @@
+package asteroids.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Dimension;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class BatchRunnerTest {
+
+    @Test
+    void testResultsDoNotDependOnThreads() {
+        BatchRunner runner = new BatchRunner(new Dimension(600, 600), 60, 3000, InputPolicy.RANDOM);
+
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            BatchRunner.Summary serial = runner.run(24, 5, one);
+            BatchRunner.Summary parallel = runner.run(24, 5, four);
+
+            assertEquals(24, serial.getGames());
+            assertEquals(serial.getTicks(), parallel.getTicks());
+            assertEquals(serial.getScoreSum(), parallel.getScoreSum());
+            assertEquals(serial.getGamesOver(), parallel.getGamesOver());
+            assertEquals(serial.getMaxScore(), parallel.getMaxScore());
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    @Test
+    void testGameCanBeRunAgainFromItsSeed() {
+        BatchRunner runner = new BatchRunner(new Dimension(600, 600), 60, 3000, InputPolicy.SPIN_AND_SHOOT);
+        long seed = BatchRunner.seedOf(5, 3);
+
+        BatchRunner.GameResult first = runner.runGame(seed);
+        BatchRunner.GameResult second = runner.runGame(seed);
+        assertEquals(first.score, second.score);
+        assertEquals(first.ticks, second.ticks);
+    }
+}
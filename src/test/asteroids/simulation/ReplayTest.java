@@ -0,0 +1,89 @@
+package asteroids.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Dimension;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import asteroids.AsteroidsGame;
+import asteroids.GameMode;
+
+class ReplayTest {
+
+    private static final Dimension SIZE = new Dimension(600, 600);
+
+    @Test
+    void testReplayPlaysTheSameGame() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReplayRecorder recorder = new ReplayRecorder(out, 42, SIZE.width, SIZE.height, 60);
+
+        // Random input held for a few ticks at a time, like a player
+        Random input = new Random(7);
+        int[] mask = new int[1];
+        HeadlessSimulation recorded = new HeadlessSimulation(new AsteroidsGame(SIZE, 42), SIZE, 60);
+        recorded.setInput(game -> {
+            if (input.nextInt(8) == 0) {
+                mask[0] = input.nextInt(32);
+            }
+            recorder.record(mask[0]);
+            game.applyInput(mask[0], 60);
+        });
+        for (int i = 0; i < 5000; i++) {
+            recorded.step();
+        }
+        recorder.close();
+
+        ReplayPlayer player = ReplayPlayer.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(5000, player.getTicks());
+        assertEquals(42, player.getSeed());
+
+        AsteroidsGame original = recorded.getGame();
+        AsteroidsGame replayed = player.play().getGame();
+        assertEquals(original.getScore(), replayed.getScore());
+        assertEquals(original.getLives(), replayed.getLives());
+        assertEquals(original.ship.getX(), replayed.ship.getX());
+        assertEquals(original.ship.getY(), replayed.ship.getY());
+        assertEquals(original.ship.getRotation(), replayed.ship.getRotation());
+
+        // Runs keep the replay far smaller than a byte per tick
+        assertTrue(out.size() < 5000 / 2, "replay of " + out.size() + " bytes");
+    }
+
+    @Test
+    void testHeldInputIsOneRun() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReplayRecorder recorder = new ReplayRecorder(out, 1, SIZE.width, SIZE.height, 60)) {
+            for (int i = 0; i < 100_000; i++) {
+                recorder.record(3);
+            }
+        }
+
+        ReplayPlayer player = ReplayPlayer.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(100_000, player.getTicks());
+
+        // The header, a mask byte and three bytes of run length
+        assertEquals(27 + 1 + 3, out.size());
+    }
+
+    @Test
+    void testRecordsTheGameMode() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReplayRecorder recorder = new ReplayRecorder(out, 5, GameMode.SWARM, SIZE.width, SIZE.height, 60)) {
+            recorder.record(0);
+        }
+
+        ReplayPlayer player = ReplayPlayer.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(GameMode.SWARM, player.getMode());
+        assertEquals(GameMode.SWARM, player.createSimulation().getGame().getMode());
+    }
+
+    @Test
+    void testRejectsOtherStreams() {
+        assertThrows(IOException.class, () -> ReplayPlayer.read(new ByteArrayInputStream(new byte[40])));
+    }
+}
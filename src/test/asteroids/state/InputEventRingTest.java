@@ -0,0 +1,69 @@
+package asteroids.state;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class InputEventRingTest {
+
+    @Test
+    void testDrainsInOrderUpToTime() {
+        InputEventRing ring = new InputEventRing(8);
+        ring.offer(0, true, 10);
+        ring.offer(1, true, 20);
+        ring.offer(0, false, 30);
+
+        StringBuilder seen = new StringBuilder();
+        InputEventRing.Handler handler = (action, pressed, time) -> seen.append(action).append(pressed ? '+' : '-');
+
+        assertEquals(2, ring.drain(25, handler));
+        assertEquals("0+1+", seen.toString());
+        assertEquals(1, ring.size());
+
+        assertEquals(1, ring.drain(Long.MAX_VALUE, handler));
+        assertEquals("0+1+0-", seen.toString());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void testDropsWhenFull() {
+        InputEventRing ring = new InputEventRing(3);
+
+        // Rounded up to 4
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i, true, i));
+        }
+        assertFalse(ring.offer(4, true, 4));
+        assertEquals(1, ring.getDropped());
+
+        // Taking events makes room again
+        ring.drain(0, (action, pressed, time) -> {});
+        assertTrue(ring.offer(5, true, 5));
+    }
+
+    @Test
+    void testPassesEventsBetweenThreads() throws InterruptedException {
+        InputEventRing ring = new InputEventRing(64);
+        int count = 200_000;
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!ring.offer(i, (i & 1) == 0, i)) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        producer.start();
+
+        int[] next = new int[1];
+        while (next[0] < count) {
+            ring.drain(Long.MAX_VALUE, (action, pressed, time) -> {
+                assertEquals(next[0], action);
+                assertEquals((next[0] & 1) == 0, pressed);
+                assertEquals(next[0], time);
+                next[0]++;
+            });
+        }
+        producer.join();
+    }
+}
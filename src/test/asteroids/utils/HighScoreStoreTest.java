@@ -0,0 +1,122 @@
+package asteroids.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HighScoreStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testKeepsBestScoresSorted() throws IOException {
+        try (HighScoreStore store = new HighScoreStore(dir.resolve("scores.dat"))) {
+            assertEquals(0, store.getHighScore());
+
+            for (int i = 0; i < 25; i++) {
+                // Scores out of order: 0, 700, 1400, ... wrapping around
+                store.add("p" + i, (i * 700) % 2500);
+            }
+
+            assertEquals(25, store.getRecordCount());
+            assertEquals(2400, store.getHighScore());
+
+            List<HighScoreStore.Entry> top = store.getTopScores();
+            assertEquals(HighScoreStore.TOP_COUNT, top.size());
+            for (int i = 1; i < top.size(); i++) {
+                assertTrue(top.get(i - 1).score >= top.get(i).score);
+            }
+        }
+    }
+
+    @Test
+    void testReopenKeepsRecords() throws IOException {
+        Path file = dir.resolve("scores.dat");
+        try (HighScoreStore store = new HighScoreStore(file)) {
+            store.add("alice", 300);
+            store.add("bob", 1200);
+        }
+
+        try (HighScoreStore store = new HighScoreStore(file)) {
+            assertEquals(2, store.getRecordCount());
+            assertEquals(1200, store.getHighScore());
+            assertEquals("bob", store.getTopScores().get(0).name);
+            assertEquals("alice", store.getRecord(0).name);
+            assertEquals(300, store.getRecord(0).score);
+
+            // The file only grows by one record per score
+            store.add("carol", 50);
+            assertEquals(HighScoreStore.HEADER_SIZE + 3 * HighScoreStore.RECORD_SIZE, Files.size(file));
+        }
+    }
+
+    @Test
+    void testLongNamesAreCut() throws IOException {
+        try (HighScoreStore store = new HighScoreStore(dir.resolve("scores.dat"))) {
+            store.add("ä".repeat(40), 10);
+            String name = store.getRecord(0).name;
+            assertEquals("ä".repeat(HighScoreStore.NAME_BYTES / 2), name);
+        }
+    }
+
+    @Test
+    void testMigratesTextFileOnce() throws IOException {
+        Path file = dir.resolve("scores.dat");
+        Path legacy = dir.resolve("scores.txt");
+        Files.writeString(legacy, "alice 300\nbob smith 1200\nbroken\n");
+
+        try (HighScoreStore store = HighScoreStore.open(file, legacy)) {
+            assertEquals(2, store.getRecordCount());
+            assertEquals(1200, store.getHighScore());
+            assertEquals("bob smith", store.getTopScores().get(0).name);
+        }
+
+        // The second time the binary file exists, so nothing is copied
+        try (HighScoreStore store = HighScoreStore.open(file, legacy)) {
+            assertEquals(2, store.getRecordCount());
+        }
+    }
+
+    @Test
+    void testMigratesNamesThatAreNotUtf8() throws IOException {
+        Path file = dir.resolve("scores.dat");
+        Path legacy = dir.resolve("scores.txt");
+
+        // Written by FileWriter in a single byte platform charset
+        Files.write(legacy, "Jos\u00e9 500\nann 200\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        try (HighScoreStore store = HighScoreStore.open(file, legacy)) {
+            assertEquals(2, store.getRecordCount());
+            assertEquals(500, store.getHighScore());
+        }
+    }
+
+    @Test
+    void testFailedMigrationLeavesNoFile() throws IOException {
+        Path file = dir.resolve("scores.dat");
+
+        // A directory cannot be read as a text file
+        Path legacy = Files.createDirectory(dir.resolve("scores.txt"));
+
+        assertThrows(IOException.class, () -> HighScoreStore.open(file, legacy));
+        assertFalse(Files.exists(file));
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("scores.dat");
+        Files.write(file, new byte[HighScoreStore.HEADER_SIZE]);
+        assertThrows(IOException.class, () -> new HighScoreStore(file));
+    }
+}
@@ -0,0 +1,91 @@
+package asteroids.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LeaderboardTest {
+
+    @Test
+    void testKeepsBestOfEachPlayer() {
+        Leaderboard leaderboard = new Leaderboard();
+        assertTrue(leaderboard.add("alice", 300));
+        assertTrue(leaderboard.add("bob", 1200));
+        assertFalse(leaderboard.add("alice", 100));
+        assertTrue(leaderboard.add("alice", 1500));
+
+        assertEquals(2, leaderboard.size());
+        assertEquals(4, leaderboard.getRecordCount());
+        assertEquals(1500, leaderboard.getBest("alice"));
+        assertNull(leaderboard.getBest("carol"));
+        assertEquals(1500, leaderboard.getHighScore());
+
+        List<HighScoreStore.Entry> top = leaderboard.getTop(5);
+        assertEquals("alice", top.get(0).name);
+        assertEquals("bob", top.get(1).name);
+    }
+
+    @Test
+    void testRank() {
+        Leaderboard leaderboard = new Leaderboard();
+        for (int i = 0; i < 100; i++) {
+            leaderboard.add("p" + i, i * 10);
+        }
+
+        assertEquals(1, leaderboard.getRank(5000));
+        assertEquals(1, leaderboard.getRank(990));
+        assertEquals(2, leaderboard.getRank(985));
+        assertEquals(100, leaderboard.getRank(0));
+        assertEquals(101, leaderboard.getRank(-1));
+    }
+
+    @Test
+    void testMatchesSortedScores() {
+        Leaderboard leaderboard = new Leaderboard();
+        Map<String, Integer> best = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            String name = "p" + random.nextInt(50);
+            int score = random.nextInt(100) * 100;
+            leaderboard.add(name, score);
+            best.merge(name, score, Math::max);
+        }
+
+        List<HighScoreStore.Entry> top = leaderboard.getTop(Integer.MAX_VALUE);
+        assertEquals(best.size(), top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(best.get(top.get(i).name), top.get(i).score);
+            if (i > 0) {
+                assertTrue(top.get(i - 1).score >= top.get(i).score);
+            }
+        }
+    }
+
+    @Test
+    void testSerializedFormRoundTrips() throws IOException {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.add("alice", 300);
+        leaderboard.add("bob smith", 1200);
+        leaderboard.add("alice", 200);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        leaderboard.writeTo(out);
+        Leaderboard read = Leaderboard.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(3, read.getRecordCount());
+        assertEquals(2, read.size());
+        assertEquals(1200, read.getHighScore());
+        assertEquals(300, read.getBest("alice"));
+        assertEquals(3, read.getRank(250));
+
+        assertThrows(IOException.class, () -> Leaderboard.readFrom(new ByteArrayInputStream(new byte[16])));
+    }
+}
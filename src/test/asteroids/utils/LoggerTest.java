@@ -0,0 +1,148 @@
+package asteroids.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import asteroids.utils.Logger.Level;
+
+class LoggerTest {
+
+    @Test
+    void testWritesMessagesInOrder() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Logger logger = new Logger(new PrintStream(bytes, true, StandardCharsets.UTF_8), 4, Level.INFO)) {
+            // Each message is written before the next is logged
+            for (int i = 0; i < 3; i++) {
+                logger.log(Level.INFO, "submit score {} {}", "ana", null, 100 + i, 1);
+                logger.flush();
+            }
+            logger.log(Level.WARN, "{} and {}", "a", "b", 0, -1);
+            logger.flush();
+        }
+
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].endsWith(" INFO [" + Thread.currentThread().getName() + "] submit score ana 100"), lines[0]);
+        assertTrue(lines[2].endsWith("submit score ana 102"), lines[2]);
+        assertTrue(lines[3].endsWith(" WARN [" + Thread.currentThread().getName() + "] a and b"), lines[3]);
+    }
+
+    @Test
+    void testDropsMessagesWhenRingIsFull() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Holds up the drain thread on its first write
+        OutputStream slow = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                bytes.write(b, off, len);
+            }
+        };
+
+        try (Logger logger = new Logger(new PrintStream(slow, true, StandardCharsets.UTF_8), 4, Level.INFO)) {
+            logger.log(Level.INFO, "message {}", null, null, 0, 0);
+            writing.await();
+
+            // The first message still holds its slot, so 3 more fit
+            for (int i = 1; i < 10; i++) {
+                logger.log(Level.INFO, "message {}", null, null, i, 0);
+            }
+            assertEquals(6, logger.getDropped());
+
+            release.countDown();
+            logger.flush();
+        }
+
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(5, lines.length);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(lines[i].endsWith("message " + i), lines[i]);
+        }
+        assertTrue(lines[4].endsWith(" WARN [log-drain] 6 messages dropped"), lines[4]);
+    }
+
+    @Test
+    void testCloseWritesClaimedMessages() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Logger logger = new Logger(new PrintStream(bytes, true, StandardCharsets.UTF_8), 1024, Level.INFO);
+
+        // Log from several threads while closing
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    logger.log(Level.INFO, "message {}", null, null, i, 0);
+                }
+            });
+            threads[t].start();
+        }
+        logger.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Every message is written, either by the drain thread or by its own
+        // thread after closing
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(0, logger.getDropped());
+        assertEquals(800, lines.length);
+    }
+
+    @Test
+    void testSkipsDisabledLevels() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Logger logger = new Logger(new PrintStream(bytes, true, StandardCharsets.UTF_8), 16, Level.WARN)) {
+            assertFalse(logger.isEnabled(Level.DEBUG));
+            assertFalse(logger.isEnabled(Level.INFO));
+            assertTrue(logger.isEnabled(Level.ERROR));
+
+            logger.log(Level.DEBUG, "hidden", null, null, 0, -1);
+            logger.log(Level.INFO, "hidden", null, null, 0, -1);
+            logger.log(Level.ERROR, "shown", null, null, 0, -1);
+            logger.flush();
+        }
+
+        String text = bytes.toString(StandardCharsets.UTF_8);
+        assertFalse(text.contains("hidden"));
+        assertTrue(text.contains("ERROR"));
+        assertEquals(1, text.split(System.lineSeparator()).length);
+    }
+
+    @Test
+    void testWritesRightAwayWhenClosed() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Logger logger = new Logger(new PrintStream(bytes, true, StandardCharsets.UTF_8), 16, Level.DEBUG);
+        logger.close();
+
+        logger.log(Level.DEBUG, "decreaseLives {}", null, null, 2, 0);
+        assertTrue(bytes.toString(StandardCharsets.UTF_8).contains("decreaseLives 2"));
+    }
+
+    @Test
+    void testParsesLevel() {
+        assertEquals(Level.DEBUG, Log.parseLevel("debug"));
+        assertEquals(Level.INFO, Log.parseLevel(null));
+        assertEquals(Level.INFO, Log.parseLevel("loud"));
+    }
+}
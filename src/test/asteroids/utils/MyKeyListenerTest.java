@@ -0,0 +1,51 @@
+package asteroids.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.event.KeyEvent;
+
+import javax.swing.JPanel;
+
+import org.junit.jupiter.api.Test;
+
+import asteroids.utils.MyKeyListener.KeyOp;
+
+class MyKeyListenerTest {
+
+    private static KeyEvent event(int id, int keyCode) {
+        return new KeyEvent(new JPanel(), id, 0, 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+    }
+
+    @Test
+    void testBindingsChangeLive() {
+        MyKeyListener listener = new MyKeyListener();
+        int[] presses = new int[1];
+        int[] releases = new int[1];
+
+        // Bindings added after the listener was handed out still apply
+        listener.setMapping(KeyEvent.VK_SPACE, Void -> presses[0]++, KeyOp.Press);
+        listener.trueListener.keyPressed(event(KeyEvent.KEY_PRESSED, KeyEvent.VK_SPACE));
+        listener.setMapping(KeyEvent.VK_SPACE, Void -> releases[0]++, KeyOp.Release);
+        listener.trueListener.keyReleased(event(KeyEvent.KEY_RELEASED, KeyEvent.VK_SPACE));
+
+        assertEquals(1, presses[0]);
+        assertEquals(1, releases[0]);
+
+        // Unbound keys and operations do nothing
+        listener.trueListener.keyPressed(event(KeyEvent.KEY_PRESSED, KeyEvent.VK_A));
+        listener.trueListener.keyReleased(event(KeyEvent.KEY_RELEASED, KeyEvent.VK_A));
+        assertEquals(1, presses[0]);
+    }
+
+    @Test
+    void testLargeKeyCodes() {
+        MyKeyListener listener = new MyKeyListener();
+        int[] presses = new int[1];
+
+        listener.setMapping(KeyEvent.VK_F24, Void -> presses[0]++, KeyOp.Press);
+        listener.trueListener.keyPressed(event(KeyEvent.KEY_PRESSED, KeyEvent.VK_F24));
+        listener.trueListener.keyPressed(event(KeyEvent.KEY_PRESSED, KeyEvent.VK_F24 + 1));
+
+        assertEquals(1, presses[0]);
+    }
+}
@@ -0,0 +1,106 @@
+package asteroids.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScoreWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testBatchesScoresFromManyThreads() throws Exception {
+        try (HighScoreStore store = new HighScoreStore(dir.resolve("scores.dat"))) {
+            ScoreWriter writer = new ScoreWriter(store, 16, 32, 50);
+
+            Thread[] players = new Thread[4];
+            for (int t = 0; t < players.length; t++) {
+                int id = t;
+                players[t] = new Thread(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        writer.submit("p" + id, i);
+                    }
+                });
+                players[t].start();
+            }
+            for (Thread player : players) {
+                player.join();
+            }
+
+            writer.flush();
+            assertEquals(1000, store.getRecordCount());
+            assertEquals(1000, writer.getWrittenCount());
+            assertEquals(0, writer.getQueueDepth());
+            assertTrue(writer.getMaxQueueDepth() <= 16);
+            assertTrue(writer.getBatchCount() < 1000, "batches " + writer.getBatchCount());
+            assertEquals(249, store.getHighScore());
+
+            writer.close();
+        }
+    }
+
+    @Test
+    void testCloseWritesQueuedScores() throws IOException {
+        try (HighScoreStore store = new HighScoreStore(dir.resolve("scores.dat"))) {
+            // A long interval, so only closing writes the scores
+            ScoreWriter writer = new ScoreWriter(store, 64, 64, 60_000);
+            writer.submit("alice", 300);
+            writer.submit("bob", 1200);
+
+            writer.close();
+            assertEquals(2, store.getRecordCount());
+            assertEquals(1200, store.getHighScore());
+
+            writer.close();
+            assertThrows(IllegalStateException.class, () -> writer.submit("carol", 50));
+        }
+    }
+
+    @Test
+    void testCloseWhileSubmittingAndFlushing() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            try (HighScoreStore store = new HighScoreStore(dir.resolve("race" + round + ".dat"))) {
+                // A small queue, so submitters wait on it while closing
+                ScoreWriter writer = new ScoreWriter(store, 2, 4, 60_000);
+                AtomicInteger accepted = new AtomicInteger();
+
+                Thread[] players = new Thread[4];
+                for (int t = 0; t < players.length; t++) {
+                    boolean flushing = t % 2 == 0;
+                    players[t] = new Thread(() -> {
+                        try {
+                            while (true) {
+                                if (flushing) {
+                                    writer.flush();
+                                } else {
+                                    writer.submit("p", 1);
+                                    accepted.incrementAndGet();
+                                }
+                            }
+                        } catch (IllegalStateException e) {
+                            // Closed
+                        }
+                    });
+                    players[t].start();
+                }
+
+                Thread.sleep(5);
+                writer.close();
+
+                // Every call returns, and every accepted score is written
+                for (Thread player : players) {
+                    player.join(5000);
+                    assertFalse(player.isAlive(), "a call did not return after close");
+                }
+                assertEquals(accepted.get(), writer.getWrittenCount());
+                assertEquals(0, writer.getQueueDepth());
+            }
+        }
+    }
+}
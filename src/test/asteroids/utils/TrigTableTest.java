@@ -0,0 +1,35 @@
+package asteroids.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class TrigTableTest {
+
+    @Test
+    void testErrorIsBounded() {
+        float maxError = 0;
+
+        // Sweep more than two full turns in both directions, off the steps
+        for (float degrees = -800; degrees <= 800; degrees += 0.0137f) {
+            double radians = Math.toRadians(degrees);
+            maxError = Math.max(maxError, (float) Math.abs(TrigTable.sin(degrees) - Math.sin(radians)));
+            maxError = Math.max(maxError, (float) Math.abs(TrigTable.cos(degrees) - Math.cos(radians)));
+        }
+
+        assertTrue(maxError <= TrigTable.MAX_ERROR, "max error " + maxError);
+
+        // Less than a thousandth, which is a hundredth of a pixel per tick
+        // for the fastest objects
+        assertTrue(TrigTable.MAX_ERROR < 1e-3);
+    }
+
+    @Test
+    void testExactOnSteps() {
+        assertEquals(0, TrigTable.sin(0), 1e-6);
+        assertEquals(1, TrigTable.sin(90), 1e-6);
+        assertEquals(-1, TrigTable.cos(180), 1e-6);
+        assertEquals(-1, TrigTable.sin(-90), 1e-6);
+        assertEquals(1, TrigTable.cos(360), 1e-6);
+    }
+}